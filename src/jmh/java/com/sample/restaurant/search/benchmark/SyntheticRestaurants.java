@@ -0,0 +1,93 @@
+package com.sample.restaurant.search.benchmark;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Reproducible synthetic restaurant catalogues for the benchmarks.
+ * Restaurants are spread uniformly over a square world whose area grows with the catalogue size, so the number
+ * of restaurants visible from a random point stays comparable across sizes and only the scan cost changes.
+ */
+public final class SyntheticRestaurants {
+
+    /**
+     * Average area of the world per restaurant, in square coordinate units.
+     */
+    private static final int AREA_PER_RESTAURANT = 1024;
+
+    private static final long SEED = 42L;
+
+    /**
+     * Shapes of the visibility radius distribution.
+     */
+    public enum RadiusDistribution {
+        /** Every radius between 1 and 8. */
+        SMALL,
+        /** 80% small radii, 20% between 16 and 128. */
+        MIXED,
+        /** Pareto distributed radii (alpha 1.5) starting at 1, capped at a quarter of the world. */
+        HEAVY_TAIL
+    }
+
+    private SyntheticRestaurants() {
+    }
+
+    /**
+     * @param size the number of restaurants
+     * @return the side length of the square world holding that many restaurants
+     */
+    public static int worldSize(int size) {
+        return (int) Math.max(64, Math.sqrt((double) size * AREA_PER_RESTAURANT));
+    }
+
+    /**
+     * Generates a catalogue. The same arguments always produce the same restaurants.
+     *
+     * @param size         the number of restaurants
+     * @param distribution the radius distribution
+     * @return the generated restaurants
+     */
+    public static List<RestaurantLocation> generate(int size, RadiusDistribution distribution) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int world = worldSize(size);
+        List<RestaurantLocation> restaurants = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            restaurants.add(new RestaurantLocation(
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    "Restaurant " + i,
+                    new Coordinates(random.nextInt(world), random.nextInt(world)),
+                    radius(random, distribution, world)));
+        }
+        return restaurants;
+    }
+
+    /**
+     * Generates query points uniformly distributed over the world of a catalogue.
+     *
+     * @param size  the number of restaurants in the catalogue
+     * @param count the number of points (a power of two, so callers can cycle with a mask)
+     * @return interleaved x and y coordinates
+     */
+    public static int[] queryPoints(int size, int count) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        int world = worldSize(size);
+        int[] points = new int[count * 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextInt(world);
+        }
+        return points;
+    }
+
+    private static int radius(SplittableRandom random, RadiusDistribution distribution, int world) {
+        return switch (distribution) {
+            case SMALL -> 1 + random.nextInt(8);
+            case MIXED -> random.nextInt(5) == 0 ? 16 + random.nextInt(113) : 1 + random.nextInt(8);
+            case HEAVY_TAIL -> (int) Math.min(world / 4.0, Math.pow(1 - random.nextDouble(), -1 / 1.5));
+        };
+    }
+}
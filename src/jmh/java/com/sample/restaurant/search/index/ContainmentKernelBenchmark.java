@@ -0,0 +1,66 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.benchmark.SyntheticRestaurants;
+import com.sample.restaurant.search.benchmark.SyntheticRestaurants.RadiusDistribution;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scans of one geometry block with the scalar and the SIMD containment kernels, which is what a search costs
+ * when it falls back to scanning candidates without the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class ContainmentKernelBenchmark {
+
+    private static final int POINTS = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"SMALL", "HEAVY_TAIL"})
+    private RadiusDistribution radii;
+
+    private GeometryBlock block;
+    private int[] points;
+    private int next;
+    private ContainmentKernel vector;
+
+    @Setup
+    public void setUp() {
+        List<RestaurantLocation> restaurants = SyntheticRestaurants.generate(size, radii);
+        block = GeometryBlock.of(restaurants);
+        points = SyntheticRestaurants.queryPoints(size, POINTS);
+        vector = new VectorContainmentKernel();
+    }
+
+    @Benchmark
+    public void scalar(Blackhole blackhole) {
+        int i = (next++ & (POINTS - 1)) * 2;
+        block.forEachContaining(ScalarContainmentKernel.INSTANCE, points[i], points[i + 1], 0, block.size(), blackhole::consume);
+    }
+
+    @Benchmark
+    public void vector(Blackhole blackhole) {
+        int i = (next++ & (POINTS - 1)) * 2;
+        block.forEachContaining(vector, points[i], points[i + 1], 0, block.size(), blackhole::consume);
+    }
+}
@@ -0,0 +1,88 @@
+package com.sample.restaurant.search.mapper;
+
+import com.sample.restaurant.search.benchmark.SyntheticRestaurants;
+import com.sample.restaurant.search.benchmark.SyntheticRestaurants.RadiusDistribution;
+import com.sample.restaurant.search.dto.LocationDto;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the mapping steps of a search: distance calculation, mapping and sorting the visible
+ * restaurants (fully or only the nearest 10), and parsing the coordinates of a write request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    /**
+     * Number of restaurants visible from the user location.
+     */
+    @Param({"10", "100", "1000", "10000"})
+    private int visible;
+
+    private final ResponseMapper responseMapper = new ResponseMapperImpl();
+    private final RequestMapper requestMapper = new RequestMapperImpl();
+
+    private List<RestaurantLocation> restaurants;
+    private Coordinates[] coordinates;
+    private String[] encodedCoordinates;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        restaurants = SyntheticRestaurants.generate(visible, RadiusDistribution.SMALL);
+        coordinates = new Coordinates[SAMPLES];
+        encodedCoordinates = new String[SAMPLES];
+        int[] points = SyntheticRestaurants.queryPoints(visible, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            coordinates[i] = new Coordinates(points[i * 2], points[i * 2 + 1]);
+            encodedCoordinates[i] = "x=" + points[i * 2] + ",y=" + points[i * 2 + 1];
+        }
+    }
+
+    @Benchmark
+    public List<LocationDto> toLocations() {
+        return responseMapper.toLocations(restaurants, 500, 500);
+    }
+
+    @Benchmark
+    public SearchResponseDto toSearchResponse() {
+        return responseMapper.toSearchResponse(restaurants, 500, 500);
+    }
+
+    @Benchmark
+    public List<LocationDto> toNearestLocations() {
+        return responseMapper.toNearestLocations(restaurants, 500, 500, 10);
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        return responseMapper.calculateDistance(coordinates[next++ & (SAMPLES - 1)], 500, 500);
+    }
+
+    @Benchmark
+    public Coordinates stringToCoordinates() {
+        return requestMapper.stringToCoordinates(encodedCoordinates[next++ & (SAMPLES - 1)]);
+    }
+}
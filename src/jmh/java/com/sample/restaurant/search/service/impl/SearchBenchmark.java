@@ -0,0 +1,103 @@
+package com.sample.restaurant.search.service.impl;
+
+import com.sample.restaurant.search.benchmark.SyntheticRestaurants;
+import com.sample.restaurant.search.benchmark.SyntheticRestaurants.RadiusDistribution;
+import com.sample.restaurant.search.cache.SearchKeyRegistry;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.index.BlockScanner;
+import com.sample.restaurant.search.index.GeometryBlock;
+import com.sample.restaurant.search.index.SpatialGridIndex;
+import com.sample.restaurant.search.mapper.RequestMapperImpl;
+import com.sample.restaurant.search.mapper.ResponseMapperImpl;
+import com.sample.restaurant.search.metrics.SearchMetrics;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end search benchmarks over synthetic catalogues.
+ * {@code restaurantLocator} is called on the service directly, so it measures the uncached computation;
+ * {@code fullScan} is the pre-index behaviour of filtering every restaurant with {@code isRestaurantNearby};
+ * {@code blockScan} runs the same full scan over a structure-of-arrays {@link GeometryBlock}.
+ * The largest catalogues need a big heap, hence the fork settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class SearchBenchmark {
+
+    private static final int POINTS = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"SMALL", "MIXED", "HEAVY_TAIL"})
+    private RadiusDistribution radii;
+
+    private List<RestaurantLocation> restaurants;
+    private GeometryBlock block;
+    private int[] points;
+    private int next;
+    private RestaurantServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        restaurants = SyntheticRestaurants.generate(size, radii);
+        block = GeometryBlock.of(restaurants);
+        points = SyntheticRestaurants.queryPoints(size, POINTS);
+        SpatialGridIndex index = new SpatialGridIndex(16, 1024, BlockScanner.sequential());
+        index.rebuild(restaurants);
+        service = new RestaurantServiceImpl(null, new ResponseMapperImpl(), new RequestMapperImpl(), index,
+                new SearchKeyRegistry(16), null, null, new NoOpCacheManager(), new SearchMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public SearchResponseDto restaurantLocator() {
+        int i = (next++ & (POINTS - 1)) * 2;
+        return service.restaurantLocator(points[i], points[i + 1]);
+    }
+
+    @Benchmark
+    public void fullScan(Blackhole blackhole) {
+        int i = (next++ & (POINTS - 1)) * 2;
+        int x = points[i];
+        int y = points[i + 1];
+        for (RestaurantLocation restaurant : restaurants) {
+            if (RestaurantServiceImpl.isRestaurantNearby(restaurant, x, y)) {
+                blackhole.consume(restaurant);
+            }
+        }
+    }
+
+    @Benchmark
+    public void blockScan(Blackhole blackhole) {
+        int i = (next++ & (POINTS - 1)) * 2;
+        block.forEachContaining(points[i], points[i + 1], blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean isRestaurantNearby() {
+        int i = next++ & (POINTS - 1);
+        RestaurantLocation restaurant = restaurants.get(i % restaurants.size());
+        return RestaurantServiceImpl.isRestaurantNearby(restaurant, points[i * 2], points[i * 2 + 1]);
+    }
+}
@@ -0,0 +1,181 @@
+package com.sample.restaurant.search.cache;
+
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.dto.LocationDto;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.exception.RepositoryBusyException;
+import com.sample.restaurant.search.mapper.ResponseMapper;
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.HotSearchKeys;
+import com.sample.restaurant.search.repository.HotSearchKeysRepository;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import com.sample.restaurant.search.service.RestaurantService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Warms the caches of a newly started instance before it reports ready.
+ * Runs after the spatial index has been loaded: the hottest search locations saved by running instances are
+ * replayed into the search cache, and the details of the restaurants they return are bulk-loaded into the
+ * restaurants cache. Spring Boot only switches readiness to ACCEPTING_TRAFFIC once all application runners have
+ * returned, so the readiness probe stays down until warming completes or its time budget runs out.
+ * <p>
+ * The hottest keys are taken from the eviction policy of the search cache, which tracks access frequency, and saved
+ * periodically and on shutdown.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class CacheWarmer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+    private static final int REPLAY_BATCH_SIZE = 500;
+
+    private final RestaurantService restaurantService;
+    private final RestaurantRepository restaurantRepository;
+    private final HotSearchKeysRepository hotSearchKeysRepository;
+    private final ResponseMapper responseMapper;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final int maxHotKeys;
+    private final int maxRestaurants;
+    private final Duration maxDuration;
+
+    public CacheWarmer(RestaurantService restaurantService, RestaurantRepository restaurantRepository,
+                       HotSearchKeysRepository hotSearchKeysRepository, ResponseMapper responseMapper,
+                       CacheManager cacheManager,
+                       @Value("${restaurant.warmup.enabled:true}") boolean enabled,
+                       @Value("${restaurant.warmup.hot-keys.max-keys:10000}") int maxHotKeys,
+                       @Value("${restaurant.warmup.max-restaurants:10000}") int maxRestaurants,
+                       @Value("${restaurant.warmup.max-duration:60s}") Duration maxDuration) {
+        this.restaurantService = restaurantService;
+        this.restaurantRepository = restaurantRepository;
+        this.hotSearchKeysRepository = hotSearchKeysRepository;
+        this.responseMapper = responseMapper;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.maxHotKeys = maxHotKeys;
+        this.maxRestaurants = maxRestaurants;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            logger.info("Cache warm-up disabled");
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        try {
+            List<Coordinates> locations = hotSearchKeysRepository.findById(HotSearchKeys.SEARCH)
+                    .map(HotSearchKeys::getLocations)
+                    .orElse(List.of());
+            Set<String> restaurantIds = new LinkedHashSet<>();
+            int replayed = 0;
+            for (int from = 0; from < locations.size() && System.nanoTime() < deadline; from += REPLAY_BATCH_SIZE) {
+                List<Coordinates> batch = locations.subList(from, Math.min(locations.size(), from + REPLAY_BATCH_SIZE));
+                for (SearchResponseDto response : restaurantService.restaurantLocatorBatch(batch)) {
+                    collectIds(response, restaurantIds);
+                }
+                replayed += batch.size();
+            }
+            int primed = primeRestaurants(restaurantIds, deadline);
+            logger.info("Cache warm-up replayed {} of {} hot searches and primed {} restaurants in {} ms",
+                    replayed, locations.size(), primed, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (DataAccessException | RepositoryBusyException e) {
+            logger.warn("Cache warm-up stopped early, remaining searches will warm the caches: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the hottest cached search locations for the next instances to start. Nothing is saved while the search
+     * cache is empty, so a freshly started instance does not overwrite the snapshot of a warm one.
+     */
+    @Scheduled(initialDelayString = "${restaurant.warmup.hot-keys.save-interval:PT5M}",
+            fixedDelayString = "${restaurant.warmup.hot-keys.save-interval:PT5M}")
+    public void saveHotKeys() {
+        if (!enabled) {
+            return;
+        }
+        List<Coordinates> hottest = hottestSearches();
+        if (hottest.isEmpty()) {
+            return;
+        }
+        try {
+            hotSearchKeysRepository.save(new HotSearchKeys(HotSearchKeys.SEARCH, hottest, Instant.now()));
+            logger.debug("Saved {} hot search locations", hottest.size());
+        } catch (DataAccessException | RepositoryBusyException e) {
+            logger.warn("Could not save hot search locations: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void saveOnShutdown() {
+        saveHotKeys();
+    }
+
+    /**
+     * @return the most frequently used locations of the search cache, hottest first; cached pages are left out
+     */
+    List<Coordinates> hottestSearches() {
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> searches)) {
+            return List.of();
+        }
+        Map<?, ?> hottest = searches.policy().eviction()
+                .<Map<?, ?>>map(eviction -> eviction.hottest(maxHotKeys))
+                .orElse(Map.of());
+        return hottest.keySet().stream()
+                .filter(SearchKey.class::isInstance)
+                .map(SearchKey.class::cast)
+                .filter(key -> !key.isPage())
+                .map(key -> new Coordinates(key.x(), key.y()))
+                .toList();
+    }
+
+    private int primeRestaurants(Set<String> ids, long deadline) {
+        Cache details = cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE);
+        if (details == null || ids.isEmpty()) {
+            return 0;
+        }
+        List<String> wanted = ids.stream().limit(maxRestaurants).toList();
+        int primed = 0;
+        for (int from = 0; from < wanted.size() && System.nanoTime() < deadline; from += REPLAY_BATCH_SIZE) {
+            List<String> batch = wanted.subList(from, Math.min(wanted.size(), from + REPLAY_BATCH_SIZE));
+            for (var restaurant : restaurantRepository.findAllById(batch)) {
+                details.put(restaurant.getId(), responseMapper.toDto(restaurant));
+                primed++;
+            }
+        }
+        return primed;
+    }
+
+    private static void collectIds(SearchResponseDto response, Set<String> ids) {
+        if (response.getLocations() == null) {
+            return;
+        }
+        for (LocationDto location : response.getLocations()) {
+            if (location.getId() != null) {
+                ids.add(location.getId().toString());
+            }
+        }
+    }
+}
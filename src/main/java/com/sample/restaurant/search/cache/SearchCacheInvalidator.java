@@ -0,0 +1,89 @@
+package com.sample.restaurant.search.cache;
+
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.index.SpatialGridIndex;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts the cached search results affected by a change to a single restaurant.
+ * Only the user locations inside the restaurant's visibility disc can have that restaurant in their result,
+ * so every other cached search stays valid. Cached tile candidates intersecting the disc are dropped as well.
+ */
+@Component
+public class SearchCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchCacheInvalidator.class);
+
+    private final CacheManager cacheManager;
+    private final SearchKeyRegistry keyRegistry;
+    private final TileCandidateCache tileCandidateCache;
+
+    public SearchCacheInvalidator(CacheManager cacheManager, SearchKeyRegistry keyRegistry, TileCandidateCache tileCandidateCache) {
+        this.cacheManager = cacheManager;
+        this.keyRegistry = keyRegistry;
+        this.tileCandidateCache = tileCandidateCache;
+    }
+
+    /**
+     * Evicts every cached search and tile, for changes whose affected region is unknown.
+     * The registry is emptied first: a search cached in between keeps its key registered, whereas emptying it last
+     * could drop the key of a result cached after the clear, which no later write would then evict.
+     */
+    public void evictAll() {
+        keyRegistry.clear();
+        for (String name : List.of(CacheConfig.SEARCH_CACHE, CacheConfig.TILE_CACHE)) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        logger.debug("Evicted all cached searches and tiles");
+    }
+
+    /**
+     * Evicts every cached search made from inside the visibility disc of any of the given restaurants.
+     *
+     * @param restaurants the restaurants in their old or new state
+     */
+    public void evictVisibleFromAll(Collection<RestaurantLocation> restaurants) {
+        restaurants.forEach(this::evictVisibleFrom);
+    }
+
+    /**
+     * Evicts every cached search made from inside the visibility disc of the given restaurant.
+     *
+     * @param restaurant the restaurant in its old or new state; ignored if null or without coordinates
+     */
+    public void evictVisibleFrom(RestaurantLocation restaurant) {
+        if (restaurant == null || restaurant.getCoordinates() == null) {
+            return;
+        }
+        tileCandidateCache.evictIntersecting(restaurant);
+        long x = restaurant.getCoordinates().getX();
+        long y = restaurant.getCoordinates().getY();
+        long radius = Math.max(0, restaurant.getRadius());
+        List<SearchKey> affected = new ArrayList<>();
+        keyRegistry.forEachWithin(x - radius, x + radius, y - radius, y + radius, key -> {
+            if (SpatialGridIndex.contains(restaurant, key.x(), key.y())) {
+                affected.add(key);
+            }
+        });
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        for (SearchKey key : affected) {
+            if (cache != null) {
+                cache.evict(key);
+            }
+            keyRegistry.forget(key);
+        }
+        logger.debug("Evicted {} cached searches around restaurant {}", affected.size(), restaurant.getId());
+    }
+}
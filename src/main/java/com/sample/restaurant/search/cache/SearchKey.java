@@ -0,0 +1,32 @@
+package com.sample.restaurant.search.cache;
+
+import com.sample.restaurant.search.mapper.CoordinatesCodec;
+
+/**
+ * Key of a cached search result: the user location the search was made from and, for one page of the nearest
+ * restaurants, the page requested. Pages are evicted with the other results of their location.
+ *
+ * @param x      the x-coordinate of the user
+ * @param y      the y-coordinate of the user
+ * @param limit  the size of the page, or 0 for every restaurant visible from the location
+ * @param offset the number of nearer restaurants skipped by the page
+ */
+public record SearchKey(int x, int y, int limit, int offset) {
+
+    public SearchKey(int x, int y) {
+        this(x, y, 0, 0);
+    }
+
+    /**
+     * @return true if the key is for one page of the nearest restaurants
+     */
+    public boolean isPage() {
+        return limit > 0;
+    }
+
+    @Override
+    public String toString() {
+        String location = CoordinatesCodec.format(x, y);
+        return isPage() ? location + ",limit=" + limit + ",offset=" + offset : location;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sample.restaurant.search.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the keys currently held by the search cache, bucketed by square tiles of the coordinate space,
+ * so that the keys inside a region can be enumerated without walking the whole cache.
+ */
+@Component
+public class SearchKeyRegistry {
+
+    private final int tileSize;
+    private final Map<Long, Set<SearchKey>> keysByTile = new ConcurrentHashMap<>();
+
+    public SearchKeyRegistry(@Value("${restaurant.cache.key-tile-size:16}") int tileSize) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be at least 1");
+        }
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Records a key that is about to be cached.
+     *
+     * @param key the search key
+     */
+    public void register(SearchKey key) {
+        keysByTile.computeIfAbsent(tileOf(key), t -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    /**
+     * Forgets a key that has left the cache.
+     *
+     * @param key the search key
+     */
+    public void forget(SearchKey key) {
+        keysByTile.computeIfPresent(tileOf(key), (tile, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Visits every registered key inside the given rectangle (bounds inclusive).
+     *
+     * @param minX   the smallest x-coordinate of the region
+     * @param maxX   the largest x-coordinate of the region
+     * @param minY   the smallest y-coordinate of the region
+     * @param maxY   the largest y-coordinate of the region
+     * @param action the action to run for each key
+     */
+    public void forEachWithin(long minX, long maxX, long minY, long maxY, Consumer<SearchKey> action) {
+        long minTx = Math.floorDiv(minX, tileSize);
+        long maxTx = Math.floorDiv(maxX, tileSize);
+        long minTy = Math.floorDiv(minY, tileSize);
+        long maxTy = Math.floorDiv(maxY, tileSize);
+        if ((maxTx - minTx + 1) * (maxTy - minTy + 1) > keysByTile.size()) {
+            // Region covers more tiles than are occupied: walking the occupied ones is cheaper
+            keysByTile.values().forEach(keys -> visit(keys, minX, maxX, minY, maxY, action));
+            return;
+        }
+        for (long tx = minTx; tx <= maxTx; tx++) {
+            for (long ty = minTy; ty <= maxTy; ty++) {
+                Set<SearchKey> keys = keysByTile.get(tileKey(tx, ty));
+                if (keys != null) {
+                    visit(keys, minX, maxX, minY, maxY, action);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every key, when the search cache is cleared.
+     */
+    public void clear() {
+        keysByTile.clear();
+    }
+
+    public int size() {
+        return keysByTile.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private static void visit(Set<SearchKey> keys, long minX, long maxX, long minY, long maxY, Consumer<SearchKey> action) {
+        for (SearchKey key : keys) {
+            if (key.x() >= minX && key.x() <= maxX && key.y() >= minY && key.y() <= maxY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    private long tileOf(SearchKey key) {
+        return tileKey(Math.floorDiv(key.x(), tileSize), Math.floorDiv(key.y(), tileSize));
+    }
+
+    private static long tileKey(long tx, long ty) {
+        return (tx << 32) | (ty & 0xFFFFFFFFL);
+    }
+}
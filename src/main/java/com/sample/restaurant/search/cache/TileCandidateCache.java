@@ -0,0 +1,140 @@
+package com.sample.restaurant.search.cache;
+
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.index.GeometryBlock;
+import com.sample.restaurant.search.metrics.SearchMetrics;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches, for each square tile of the coordinate space, the restaurants whose visibility disc intersects the tile.
+ * Any search made from inside a cached tile reuses that candidate list and only runs the exact distance check,
+ * so user locations that are close to each other share one database query instead of one per exact point.
+ */
+@Component
+public class TileCandidateCache {
+
+    private final RestaurantRepository restaurantRepository;
+    private final Cache cache;
+    private final int tileSize;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer repositoryTimer;
+
+    public TileCandidateCache(RestaurantRepository restaurantRepository, CacheManager cacheManager, MeterRegistry meterRegistry,
+                              @Value("${restaurant.cache.tile-size:16}") int tileSize) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be at least 1");
+        }
+        this.restaurantRepository = restaurantRepository;
+        this.cache = cacheManager.getCache(CacheConfig.TILE_CACHE);
+        this.tileSize = tileSize;
+        this.hits = Counter.builder("restaurant.search.tile.lookups")
+                .description("Tile candidate lookups made on search cache misses")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("restaurant.search.tile.lookups")
+                .description("Tile candidate lookups made on search cache misses")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.repositoryTimer = SearchMetrics.stageTimer(meterRegistry, SearchMetrics.Stage.REPOSITORY);
+        Gauge.builder("restaurant.search.tile.hit.gain", this, TileCandidateCache::hitGain)
+                .description("Share of point-keyed search cache misses that were answered from a cached tile")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the candidate restaurants for the tile containing the given point, loading them on first use.
+     * The candidates are kept as a geometry block, on which the exact distance check is still applied.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return restaurants whose bounding box intersects the tile of the point
+     */
+    public GeometryBlock candidates(int x, int y) {
+        long tx = Math.floorDiv(x, tileSize);
+        long ty = Math.floorDiv(y, tileSize);
+        AtomicBoolean loaded = new AtomicBoolean();
+        GeometryBlock candidates;
+        try {
+            candidates = cache.get(tileKey(tx, ty), () -> {
+                loaded.set(true);
+                // The edge tiles of the int range extend past it, so their bounds are clamped to it
+                int minX = clamp(tx * tileSize);
+                int maxX = clamp(tx * tileSize + tileSize - 1);
+                int minY = clamp(ty * tileSize);
+                int maxY = clamp(ty * tileSize + tileSize - 1);
+                return GeometryBlock.of(repositoryTimer.record(() ->
+                        restaurantRepository.findIntersecting(minX, maxX, minY, maxY)));
+            });
+        } catch (Cache.ValueRetrievalException e) {
+            // Surface repository failures (e.g. a full bulkhead) as themselves rather than as a cache error
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        (loaded.get() ? misses : hits).increment();
+        return candidates;
+    }
+
+    /**
+     * Evicts every cached tile intersecting the visibility disc of the given restaurant.
+     *
+     * @param restaurant the restaurant in its old or new state; ignored if null or without coordinates
+     */
+    public void evictIntersecting(RestaurantLocation restaurant) {
+        if (restaurant == null || restaurant.getCoordinates() == null) {
+            return;
+        }
+        long radius = Math.max(0, restaurant.getRadius());
+        long minTx = Math.floorDiv(restaurant.getCoordinates().getX() - radius, tileSize);
+        long maxTx = Math.floorDiv(restaurant.getCoordinates().getX() + radius, tileSize);
+        long minTy = Math.floorDiv(restaurant.getCoordinates().getY() - radius, tileSize);
+        long maxTy = Math.floorDiv(restaurant.getCoordinates().getY() + radius, tileSize);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> tiles = nativeCache();
+        if ((maxTx - minTx + 1) * (maxTy - minTy + 1) > tiles.estimatedSize()) {
+            // Disc covers more tiles than are cached: walking the cached ones is cheaper
+            tiles.asMap().keySet().removeIf(key -> {
+                long tile = (Long) key;
+                long tx = tile >> 32;
+                long ty = (int) tile;
+                return tx >= minTx && tx <= maxTx && ty >= minTy && ty <= maxTy;
+            });
+            return;
+        }
+        for (long tx = minTx; tx <= maxTx; tx++) {
+            for (long ty = minTy; ty <= maxTy; ty++) {
+                cache.evict(tileKey(tx, ty));
+            }
+        }
+    }
+
+    private double hitGain() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache() {
+        return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+    }
+
+    private static int clamp(long coordinate) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, coordinate));
+    }
+
+    private static long tileKey(long tx, long ty) {
+        return (tx << 32) | (ty & 0xFFFFFFFFL);
+    }
+}
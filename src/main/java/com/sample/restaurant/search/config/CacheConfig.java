@@ -0,0 +1,119 @@
+package com.sample.restaurant.search.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sample.restaurant.search.cache.SearchKey;
+import com.sample.restaurant.search.cache.SearchKeyRegistry;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.index.GeometryBlock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cache configuration.
+ * Replaces the default unbounded ConcurrentMapCacheManager with Caffeine caches that are bounded by size or
+ * weight, expire after a configurable time and use Caffeine's W-TinyLFU eviction policy. Statistics are
+ * recorded so that hits, misses and evictions are published per cache on the actuator metrics endpoint.
+ * Keys leaving the search cache on their own are dropped from the SearchKeyRegistry used for targeted eviction;
+ * explicit evictions and clears go through SearchCacheInvalidator, which keeps the registry in step.
+ * <p>
+ * The caches are synchronous, so a miss is computed on the calling request thread, within the repository
+ * bulkhead, rather than on the common fork-join pool an async cache would hand it to. Concurrent misses for the
+ * same key (see {@code @Cacheable(sync = true)} and {@code Cache.get(key, loader)}) still wait on that one
+ * computation and all receive its result, and a failed computation reaches its caller without being logged.
+ * <p>
+ * On top of the hit and miss counters Spring Boot binds for every cache, the hit ratio of each cache is published
+ * as the {@code restaurant.cache.hit.ratio} gauge.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String SEARCH_CACHE = "restaurantSearchCache";
+    public static final String RESTAURANTS_CACHE = "restaurants";
+    public static final String TILE_CACHE = "restaurantTileCache";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties, SearchKeyRegistry searchKeyRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(SEARCH_CACHE, build(properties.getSearch())
+                .evictionListener((key, value, cause) -> {
+                    if (key instanceof SearchKey searchKey) {
+                        searchKeyRegistry.forget(searchKey);
+                    }
+                })
+                .build());
+        cacheManager.registerCustomCache(RESTAURANTS_CACHE, build(properties.getRestaurants()).build());
+        cacheManager.registerCustomCache(TILE_CACHE, build(properties.getTiles()).build());
+        return cacheManager;
+    }
+
+    /**
+     * Publishes the hit ratio of each cache since startup, as reported by Caffeine's statistics.
+     * The gauge reads 0 for caches whose statistics are disabled.
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : List.of(SEARCH_CACHE, RESTAURANTS_CACHE, TILE_CACHE)) {
+                if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                    Gauge.builder("restaurant.cache.hit.ratio", cache.getNativeCache(), c -> c.stats().hitRate())
+                            .description("Share of cache lookups answered from the cache")
+                            .tag("cache", name)
+                            .register(registry);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a Caffeine builder from the given limits.
+     *
+     * @param spec the configured limits
+     * @return a builder for a cache honouring the limits
+     */
+    static Caffeine<Object, Object> build(CacheProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight())
+                    .weigher(CacheConfig::weigh);
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.isRecordStats()) {
+            builder.recordStats();
+        }
+        return builder;
+    }
+
+    /**
+     * Weighs an entry by the number of restaurants it holds. A cached search response also keeps its JSON encoding
+     * and, once a client asked for it, a gzip copy; both are attached after the entry is weighed but grow with the
+     * number of locations too, so a unit of search weight stands for about 360 bytes: about 175 for the location
+     * objects, 135 for their JSON and 55 for its gzip copy.
+     */
+    private static int weigh(Object key, Object value) {
+        if (value instanceof SearchResponseDto response && response.getLocations() != null) {
+            return 1 + response.getLocations().size();
+        }
+        if (value instanceof Collection<?> candidates) {
+            return 1 + candidates.size();
+        }
+        if (value instanceof GeometryBlock candidates) {
+            return 1 + candidates.size();
+        }
+        return 1;
+    }
+}
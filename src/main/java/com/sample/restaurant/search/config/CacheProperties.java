@@ -0,0 +1,119 @@
+package com.sample.restaurant.search.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Size, weight and expiry limits of the application caches, bound from {@code restaurant.cache.*}.
+ */
+@ConfigurationProperties(prefix = "restaurant.cache")
+public class CacheProperties {
+
+    /**
+     * Limits of the search result cache, keyed by user location. The default weight holds about 18 MB of results
+     * with their encodings.
+     */
+    private Spec search = new Spec(null, 50_000L, Duration.ofMinutes(10));
+
+    /**
+     * Limits of the restaurant details cache, keyed by restaurant ID.
+     */
+    private Spec restaurants = new Spec(50_000L, null, Duration.ofMinutes(30));
+
+    /**
+     * Limits of the tile candidate cache, keyed by grid tile.
+     */
+    private Spec tiles = new Spec(null, 1_000_000L, Duration.ofMinutes(10));
+
+    public Spec getSearch() {
+        return search;
+    }
+
+    public void setSearch(Spec search) {
+        this.search = search;
+    }
+
+    public Spec getRestaurants() {
+        return restaurants;
+    }
+
+    public void setRestaurants(Spec restaurants) {
+        this.restaurants = restaurants;
+    }
+
+    public Spec getTiles() {
+        return tiles;
+    }
+
+    public void setTiles(Spec tiles) {
+        this.tiles = tiles;
+    }
+
+    /**
+     * Bounds of a single cache. Either a maximum entry count or a maximum total weight is applied;
+     * the weight of a search result or candidate list is the number of restaurants it holds.
+     * Configuring one of the two replaces the default bound of the cache, whichever it is, and configuring both
+     * fails the binding, so a configured bound is never silently ignored.
+     */
+    public static class Spec {
+        private Long maximumSize;
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private boolean recordStats = true;
+        private boolean boundConfigured;
+
+        public Spec() {
+            // Default constructor for property binding
+        }
+
+        public Spec(Long maximumSize, Long maximumWeight, Duration expireAfterWrite) {
+            this.maximumSize = maximumSize;
+            this.maximumWeight = maximumWeight;
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            configureBound();
+            this.maximumSize = maximumSize;
+            this.maximumWeight = null;
+        }
+
+        public Long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(Long maximumWeight) {
+            configureBound();
+            this.maximumWeight = maximumWeight;
+            this.maximumSize = null;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public boolean isRecordStats() {
+            return recordStats;
+        }
+
+        public void setRecordStats(boolean recordStats) {
+            this.recordStats = recordStats;
+        }
+
+        private void configureBound() {
+            if (boundConfigured) {
+                throw new IllegalArgumentException("Configure either maximum-size or maximum-weight of a cache, not both");
+            }
+            boundConfigured = true;
+        }
+    }
+}
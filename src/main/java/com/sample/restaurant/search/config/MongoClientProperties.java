@@ -0,0 +1,136 @@
+package com.sample.restaurant.search.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection pool, timeout, compression and read preference settings of the MongoDB client, bound from
+ * {@code restaurant.mongo.client.*}. They are applied on top of the connection string, so they can be tuned per
+ * environment without changing it. A null value keeps the driver default.
+ */
+@ConfigurationProperties(prefix = "restaurant.mongo.client")
+public class MongoClientProperties {
+
+    /**
+     * Connection pool sizing and lifetimes.
+     */
+    private Pool pool = new Pool();
+
+    /**
+     * Time allowed to open a connection to a server.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Time allowed for a socket read, i.e. for a server to answer an operation.
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Wire compressors offered to the server in order of preference: zstd, snappy or zlib.
+     */
+    private List<String> compressors = new ArrayList<>(List.of("zstd", "snappy"));
+
+    /**
+     * Read preference of search queries. Writes and reads by ID keep the client default.
+     * Search tiles are reloaded right after a write evicts them, so with a secondary preference (e.g.
+     * secondaryPreferred, to keep searches off the primary) a lagging secondary can hand back the state from
+     * before the write and that stale tile stays cached until the next write or its expiry. Only opt into
+     * secondaries where that much staleness is acceptable.
+     */
+    private String searchReadPreference = "primary";
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public void setPool(Pool pool) {
+        this.pool = pool;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public List<String> getCompressors() {
+        return compressors;
+    }
+
+    public void setCompressors(List<String> compressors) {
+        this.compressors = compressors;
+    }
+
+    public String getSearchReadPreference() {
+        return searchReadPreference;
+    }
+
+    public void setSearchReadPreference(String searchReadPreference) {
+        this.searchReadPreference = searchReadPreference;
+    }
+
+    /**
+     * Bounds of the connection pool kept per server.
+     */
+    public static class Pool {
+        private Integer minSize = 10;
+        private Integer maxSize = 100;
+        private Duration maxWaitTime = Duration.ofSeconds(5);
+        private Duration maxConnectionIdleTime = Duration.ofMinutes(10);
+        private Duration maxConnectionLifeTime;
+
+        public Integer getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(Integer minSize) {
+            this.minSize = minSize;
+        }
+
+        public Integer getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(Integer maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getMaxWaitTime() {
+            return maxWaitTime;
+        }
+
+        public void setMaxWaitTime(Duration maxWaitTime) {
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        public Duration getMaxConnectionIdleTime() {
+            return maxConnectionIdleTime;
+        }
+
+        public void setMaxConnectionIdleTime(Duration maxConnectionIdleTime) {
+            this.maxConnectionIdleTime = maxConnectionIdleTime;
+        }
+
+        public Duration getMaxConnectionLifeTime() {
+            return maxConnectionLifeTime;
+        }
+
+        public void setMaxConnectionLifeTime(Duration maxConnectionLifeTime) {
+            this.maxConnectionLifeTime = maxConnectionLifeTime;
+        }
+    }
+}
@@ -1,33 +1,134 @@
 package com.sample.restaurant.search.config;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.sample.restaurant.search.repository.RepositoryBulkhead;
+import com.sample.restaurant.search.repository.RepositoryBulkheadPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Configuration
+@EnableConfigurationProperties(MongoClientProperties.class)
 public class RestaurantConfig {
 
+    private static final String DEFAULT_DATABASE = "restaurantdb";
+
     @Value("${spring.data.mongodb.uri}")
     private String mongoUri;
 
     /**
      * MongoDB client configuration.
-     * This bean creates a MongoClient instance using the URI specified in application properties.
+     * This bean creates a MongoClient instance using the URI specified in application properties, with the pool,
+     * timeouts and compressors of {@code restaurant.mongo.client.*} applied on top. Connection pool events are
+     * published as {@code mongodb.driver.pool.*} metrics.
      * It is used to connect to the MongoDB database for storing and retrieving restaurant data.
      */
     @Bean
-    public MongoClient mongoClient() {
-        return MongoClients.create(mongoUri);
+    public MongoClient mongoClient(MongoClientProperties properties, MeterRegistry meterRegistry) {
+        return MongoClients.create(clientSettings(new ConnectionString(mongoUri), properties, meterRegistry));
+    }
+
+    /**
+     * Template on the database named in the connection string, falling back to restaurantdb if it names none.
+     */
+    @Bean
+    public MongoTemplate mongoTemplate(MongoClient mongoClient) {
+        String database = new ConnectionString(mongoUri).getDatabase();
+        return new MongoTemplate(mongoClient, database != null ? database : DEFAULT_DATABASE);
     }
 
+    /**
+     * Builds the client settings from the connection string and the configured overrides.
+     *
+     * @param connectionString the configured connection string
+     * @param properties       the pool, timeout and compression settings; null values keep the driver defaults
+     * @param meterRegistry    the registry receiving the connection pool metrics
+     * @return the client settings
+     */
+    static MongoClientSettings clientSettings(ConnectionString connectionString, MongoClientProperties properties,
+                                              MeterRegistry meterRegistry) {
+        MongoClientProperties.Pool pool = properties.getPool();
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(connectionString)
+                .applyToConnectionPoolSettings(settings -> {
+                    if (pool.getMinSize() != null) {
+                        settings.minSize(pool.getMinSize());
+                    }
+                    if (pool.getMaxSize() != null) {
+                        settings.maxSize(pool.getMaxSize());
+                    }
+                    if (pool.getMaxWaitTime() != null) {
+                        settings.maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                    if (pool.getMaxConnectionIdleTime() != null) {
+                        settings.maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                    if (pool.getMaxConnectionLifeTime() != null) {
+                        settings.maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                    settings.addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry));
+                })
+                .applyToSocketSettings(settings -> {
+                    if (properties.getConnectTimeout() != null) {
+                        settings.connectTimeout(properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                    if (properties.getReadTimeout() != null) {
+                        settings.readTimeout(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                });
+        if (properties.getCompressors() != null && !properties.getCompressors().isEmpty()) {
+            builder.compressorList(properties.getCompressors().stream().map(RestaurantConfig::compressor).toList());
+        }
+        return builder.build();
+    }
+
+    private static MongoCompressor compressor(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Unsupported MongoDB compressor: " + name);
+        };
+    }
+
+    /**
+     * Pool scanning large geometry blocks in parallel for searches. Kept apart from the common pool so that search
+     * partitions neither compete with nor wait behind unrelated parallel streams; 0 uses one worker per processor.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool searchForkJoinPool(@Value("${restaurant.search.parallel.parallelism:0}") int parallelism) {
+        AtomicInteger workers = new AtomicInteger();
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("search-" + workers.incrementAndGet());
+            return worker;
+        }, null, false);
+    }
+
+    /**
+     * Puts every repository behind the {@link RepositoryBulkhead}, which limits concurrent MongoDB calls.
+     * Static because bean post processors are created before regular configuration beans.
+     */
     @Bean
-    public MongoTemplate mongoTemplate() {
-        return new MongoTemplate(mongoClient(), "restaurantdb");
+    public static RepositoryBulkheadPostProcessor repositoryBulkheadPostProcessor(ObjectProvider<RepositoryBulkhead> bulkhead) {
+        return new RepositoryBulkheadPostProcessor(bulkhead);
     }
 
     /**
@@ -1,22 +1,48 @@
 package com.sample.restaurant.search.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sample.restaurant.search.dto.BatchSearchRequestDto;
+import com.sample.restaurant.search.dto.BulkImportResponseDto;
+import com.sample.restaurant.search.dto.EncodedJson;
+import com.sample.restaurant.search.dto.LocationDto;
 import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
 import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.service.RestaurantImportService;
 import com.sample.restaurant.search.service.RestaurantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Controller for managing restaurant locations.
@@ -28,17 +54,38 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Restaurant Locator API", description = "Operations for locating restaurants")
 public class RestaurantController {
 
+    private static final int MAX_LIMIT = 1000;
+
     private final RestaurantService restaurantService;
+    private final RestaurantImportService restaurantImportService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter locationWriter;
+    private final SearchResponseEncoder searchResponseEncoder;
 
-    public RestaurantController(RestaurantService restaurantService) {
+    public RestaurantController(RestaurantService restaurantService, RestaurantImportService restaurantImportService,
+                                ObjectMapper objectMapper, SearchResponseEncoder searchResponseEncoder) {
         this.restaurantService = restaurantService;
+        this.restaurantImportService = restaurantImportService;
+        this.objectMapper = objectMapper;
+        this.searchResponseEncoder = searchResponseEncoder;
+        // Flushing is left to the servlet output buffer instead of happening after every line
+        this.locationWriter = objectMapper.writerFor(LocationDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
      * Searches for restaurants near the specified coordinates.
      *
+     * When a limit is given only that many restaurants are returned, nearest first, starting at the offset.
+     * The response carries a strong ETag derived from its content, and a request whose If-None-Match holds it is
+     * answered with 304. Pages are cached like whole results, so the tag of an unchanged page is checked without
+     * ordering or encoding the page again. Large responses are sent gzipped to clients accepting it.
+     *
      * @param x the x-coordinate (longitude)
      * @param y the y-coordinate (latitude)
+     * @param limit the maximum number of restaurants to return, or null for all of them
+     * @param offset the number of nearer restaurants to skip when a limit is given
+     * @param acceptEncoding the content codings the client accepts
      * @return a SearchResponseDto containing the list of nearby restaurants
      */
 
@@ -46,13 +93,91 @@ public class RestaurantController {
     @Operation(summary = "Find nearby restaurants by coordinates")
     public ResponseEntity<SearchResponseDto> searchVisibleRestaurants(
             @Parameter(description = "X coordinate (longitude)") @RequestParam @Min(value = 0, message = "x must be a non-negative integer") final int x,
-            @Parameter(description = "Y coordinate (latitude)") @RequestParam @Min(value = 0, message = "y must be a non-negative integer") final int y
+            @Parameter(description = "Y coordinate (latitude)") @RequestParam @Min(value = 0, message = "y must be a non-negative integer") final int y,
+            @Parameter(description = "Maximum number of restaurants to return, nearest first") @RequestParam(required = false)
+            @Min(value = 1, message = "limit must be at least 1") @Max(value = MAX_LIMIT, message = "limit must be at most " + MAX_LIMIT) final Integer limit,
+            @Parameter(description = "Number of nearer restaurants to skip, taken from nextOffset of the previous page") @RequestParam(defaultValue = "0")
+            @Min(value = 0, message = "offset must be a non-negative integer") final int offset,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding
     ) {
-        return ResponseEntity.ok(restaurantService.restaurantLocator(x, y));
+        SearchResponseDto response = limit == null
+                ? restaurantService.restaurantLocator(x, y)
+                : restaurantService.restaurantLocator(x, y, limit, offset);
+        // Answered with 304 by Spring when If-None-Match holds the tag; a cached response is not encoded again
+        EncodedJson encoded = searchResponseEncoder.encode(response);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (searchResponseEncoder.shouldGzip(encoded, acceptEncoding)) {
+            ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").eTag(encoded.getGzipEtag());
+        } else {
+            ok.eTag(encoded.getEtag());
+        }
+        return ok.body(response);
+    }
+
+    /**
+     * Streams the restaurants near the specified coordinates as newline-delimited JSON, one LocationDto per line.
+     * Selected with "Accept: application/x-ndjson" or "?format=ndjson". Records are written as they are found, so
+     * large result sets are never held in memory; when a limit is given they are written nearest first.
+     *
+     * @param x the x-coordinate (longitude)
+     * @param y the y-coordinate (latitude)
+     * @param limit the maximum number of restaurants to return, or null for all of them in no particular order
+     * @param offset the number of nearer restaurants to skip when a limit is given
+     * @return the streamed locations
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream nearby restaurants by coordinates as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamVisibleRestaurants(
+            @Parameter(description = "X coordinate (longitude)") @RequestParam @Min(value = 0, message = "x must be a non-negative integer") final int x,
+            @Parameter(description = "Y coordinate (latitude)") @RequestParam @Min(value = 0, message = "y must be a non-negative integer") final int y,
+            @Parameter(description = "Maximum number of restaurants to return, nearest first") @RequestParam(required = false)
+            @Min(value = 1, message = "limit must be at least 1") @Max(value = MAX_LIMIT, message = "limit must be at most " + MAX_LIMIT) final Integer limit,
+            @Parameter(description = "Number of nearer restaurants to skip") @RequestParam(defaultValue = "0")
+            @Min(value = 0, message = "offset must be a non-negative integer") final int offset
+    ) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                Consumer<LocationDto> writeLine = location -> {
+                    try {
+                        locationWriter.writeValue(generator, location);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                if (limit == null) {
+                    restaurantService.streamRestaurantLocator(x, y, writeLine);
+                } else {
+                    restaurantService.streamRestaurantLocator(x, y, limit, offset, writeLine);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Searches for restaurants near several user locations at once.
+     *
+     * @param request the user locations to search from
+     * @return one SearchResponseDto per location, in the order of the request
+     */
+    @PostMapping("/search/batch")
+    @Operation(summary = "Find nearby restaurants for several coordinates at once")
+    public ResponseEntity<List<SearchResponseDto>> searchVisibleRestaurantsBatch(
+            @Valid @RequestBody final BatchSearchRequestDto request) {
+        List<Coordinates> locations = request.getPoints().stream()
+                .map(point -> new Coordinates(point.getX(), point.getY()))
+                .toList();
+        return ResponseEntity.ok(restaurantService.restaurantLocatorBatch(locations));
     }
 
     /**
      * Retrieves restaurant details by ID.
+     * The response carries a strong ETag derived from the revision of the restaurant, and a request whose
+     * If-None-Match holds it is answered with 304.
      *
      * @param id the unique identifier of the restaurant
      * @return a RestaurantDetailsResponseDto containing the restaurant details
@@ -63,7 +188,13 @@ public class RestaurantController {
     public ResponseEntity<RestaurantDetailsResponseDto> getById(
             @Parameter(description = "Restaurant ID", required = true)
             @PathVariable final String id) {
-        return ResponseEntity.ok(restaurantService.findRestaurantById(id));
+        RestaurantDetailsResponseDto details = restaurantService.findRestaurantById(id);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (details.getUpdatedAt() != null) {
+            // Answered with 304 by Spring when If-None-Match holds the revision
+            ok.eTag(revisionTag(details.getUpdatedAt()));
+        }
+        return ok.body(details);
     }
 
     /**
@@ -81,4 +212,28 @@ public class RestaurantController {
             @Valid @RequestBody final RestaurantDetailsResponseDto restaurantDto) {
        return ResponseEntity.ok(restaurantService.addOrUpdateRestaurant(id, restaurantDto));
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds or replaces many restaurants at once.
+     * The body is read as a stream, so it can hold a full catalogue.
+     *
+     * @param body a JSON array of restaurants, or an object with a "locations" array as in locations.json
+     * @return a summary of the import
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Add or replace restaurants in bulk",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Array of restaurants, or an object with a \"locations\" array", required = true,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = RestaurantDetailsResponseDto.class)))))
+    public ResponseEntity<BulkImportResponseDto> bulkImport(final InputStream body) {
+        return ResponseEntity.ok(restaurantImportService.importRestaurants(body));
+    }
+
+    /**
+     * Strong entity tag of a restaurant revision, taken from the time the document was last written.
+     */
+    private static String revisionTag(Instant updatedAt) {
+        return "\"" + Long.toString(updatedAt.getEpochSecond(), 36) + "." + Integer.toString(updatedAt.getNano(), 36) + "\"";
+    }
+}
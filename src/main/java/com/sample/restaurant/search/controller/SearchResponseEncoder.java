@@ -0,0 +1,87 @@
+package com.sample.restaurant.search.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.restaurant.search.dto.EncodedJson;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Encodes search responses to JSON once and decides which encoding a client receives.
+ * The encoding is kept on the response, so responses shared through the search cache are serialized, tagged and
+ * compressed once. Responses carry a strong ETag, which Tomcat never compresses, so search responses are gzipped
+ * here, from the kept bytes, following the {@code server.compression} settings.
+ */
+@Component
+public class SearchResponseEncoder {
+
+    private final ObjectMapper objectMapper;
+    private final boolean compressionEnabled;
+    private final long compressionMinSize;
+
+    public SearchResponseEncoder(ObjectMapper objectMapper,
+                                 @Value("${server.compression.enabled:false}") boolean compressionEnabled,
+                                 @Value("${server.compression.min-response-size:2KB}") DataSize compressionMinSize) {
+        this.objectMapper = objectMapper;
+        this.compressionEnabled = compressionEnabled;
+        this.compressionMinSize = compressionMinSize.toBytes();
+    }
+
+    /**
+     * Returns the JSON encoding of a response, encoding it on first use.
+     *
+     * @param response the response
+     * @return its encoding
+     */
+    public EncodedJson encode(SearchResponseDto response) {
+        EncodedJson encoded = response.getEncoded();
+        if (encoded == null) {
+            // Concurrent first calls may both encode; they produce the same bytes
+            try {
+                encoded = new EncodedJson(objectMapper.writeValueAsBytes(response));
+            } catch (JsonProcessingException e) {
+                throw new HttpMessageNotWritableException("Could not write search response: " + e.getOriginalMessage(), e);
+            }
+            response.setEncoded(encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * Decides whether a response is sent gzipped.
+     *
+     * @param encoded        the encoding of the response
+     * @param acceptEncoding the Accept-Encoding header of the request, or null
+     * @return true if compression is enabled, the response is large enough and the client accepts gzip
+     */
+    public boolean shouldGzip(EncodedJson encoded, String acceptEncoding) {
+        return compressionEnabled && encoded.getJson().length >= compressionMinSize && acceptsGzip(acceptEncoding);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean anyAccepted = false;
+        for (String coding : acceptEncoding.split(",")) {
+            int parameters = coding.indexOf(';');
+            String name = (parameters < 0 ? coding : coding.substring(0, parameters)).trim();
+            boolean accepted = parameters < 0 || !isZeroQuality(coding.substring(parameters + 1));
+            if (name.equalsIgnoreCase("gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                anyAccepted = accepted;
+            }
+        }
+        return anyAccepted;
+    }
+
+    private static boolean isZeroQuality(String parameters) {
+        String value = parameters.replace(" ", "");
+        return value.startsWith("q=0") && value.substring(3).chars().allMatch(c -> c == '0' || c == '.');
+    }
+}
@@ -0,0 +1,115 @@
+package com.sample.restaurant.search.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.restaurant.search.dto.EncodedJson;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.metrics.SearchMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * JSON message converter that writes search responses from their cached encoding.
+ * The first time a {@link SearchResponseDto} is written it is serialized by Jackson and the bytes are kept on the
+ * response (see {@link SearchResponseEncoder}); as responses are shared through the search cache, every later hit
+ * copies those bytes to the socket instead of walking the object graph again. When the controller has set the
+ * Content-Encoding of the response to gzip, the kept gzip variant is written instead. Batch responses are written
+ * as an array of the encoded responses.
+ * Writing a search response is timed as the {@link SearchMetrics.Stage#SERIALIZATION} stage.
+ * Declaring this converter replaces the one Spring Boot would otherwise create, with the same application
+ * ObjectMapper, which still writes every other type.
+ */
+@Component
+public class SearchResponseMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final SearchResponseEncoder encoder;
+    private final SearchMetrics searchMetrics;
+
+    public SearchResponseMessageConverter(ObjectMapper objectMapper, SearchResponseEncoder encoder,
+                                          SearchMetrics searchMetrics) {
+        super(objectMapper);
+        this.encoder = encoder;
+        this.searchMetrics = searchMetrics;
+    }
+
+    @Override
+    protected void addDefaultHeaders(HttpHeaders headers, Object object, MediaType contentType) throws IOException {
+        super.addDefaultHeaders(headers, object, contentType);
+        if (object instanceof SearchResponseDto response && headers.getContentLength() < 0
+                && isUtf8(headers.getContentType())) {
+            EncodedJson encoded = encoder.encode(response);
+            headers.setContentLength(isGzip(headers) ? encoded.getGzipped().length : encoded.getJson().length);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!isSearchResponse(object)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            HttpHeaders headers = outputMessage.getHeaders();
+            if (!isUtf8(headers.getContentType())) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+            OutputStream body = outputMessage.getBody();
+            if (object instanceof SearchResponseDto response) {
+                EncodedJson encoded = encoder.encode(response);
+                body.write(isGzip(headers) ? encoded.getGzipped() : encoded.getJson());
+            } else {
+                body.write('[');
+                boolean first = true;
+                for (Object response : (Collection<?>) object) {
+                    if (!first) {
+                        body.write(',');
+                    }
+                    body.write(encoder.encode((SearchResponseDto) response).getJson());
+                    first = false;
+                }
+                body.write(']');
+            }
+            body.flush();
+        } finally {
+            searchMetrics.record(SearchMetrics.Stage.SERIALIZATION, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * The controller asks for the gzip variant of a search response by setting its Content-Encoding.
+     */
+    private static boolean isGzip(HttpHeaders headers) {
+        return "gzip".equals(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private boolean isUtf8(MediaType contentType) {
+        return getJsonEncoding(contentType) == JsonEncoding.UTF8;
+    }
+
+    private static boolean isSearchResponse(Object object) {
+        if (object instanceof SearchResponseDto) {
+            return true;
+        }
+        if (!(object instanceof Collection<?> responses) || responses.isEmpty()) {
+            return false;
+        }
+        for (Object response : responses) {
+            if (!(response instanceof SearchResponseDto)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.sample.restaurant.search.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for searching restaurants from several user locations in one request.
+ */
+public class BatchSearchRequestDto {
+
+    @NotEmpty(message = "At least one point is required")
+    @Size(max = 100, message = "At most 100 points can be searched at once")
+    @Valid
+    private List<Point> points;
+
+    public BatchSearchRequestDto() {
+        // Default constructor for deserialization
+    }
+
+    public BatchSearchRequestDto(List<Point> points) {
+        this.points = points;
+    }
+
+    public List<Point> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<Point> points) {
+        this.points = points;
+    }
+
+    /**
+     * A user location to search from.
+     */
+    public static class Point {
+
+        @Min(value = 0, message = "x must be a non-negative integer")
+        private int x;
+
+        @Min(value = 0, message = "y must be a non-negative integer")
+        private int y;
+
+        public Point() {
+            // Default constructor for deserialization
+        }
+
+        public Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public void setX(int x) {
+            this.x = x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public void setY(int y) {
+            this.y = y;
+        }
+    }
+}
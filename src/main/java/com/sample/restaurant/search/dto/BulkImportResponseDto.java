@@ -0,0 +1,80 @@
+package com.sample.restaurant.search.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object summarising a bulk restaurant import.
+ */
+public class BulkImportResponseDto {
+    private long received;
+    private long imported;
+    private long rejected;
+    private int batches;
+    private List<String> errors;
+
+    public BulkImportResponseDto() {
+    }
+
+    public BulkImportResponseDto(long received, long imported, long rejected, int batches, List<String> errors) {
+        this.received = received;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.batches = batches;
+        this.errors = errors;
+    }
+
+    /**
+     * @return the number of restaurants read from the request
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    /**
+     * @return the number of restaurants inserted or replaced
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * @return the number of restaurants skipped because they failed validation
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * @return the number of bulk writes sent to the database
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    /**
+     * @return the validation errors of the first rejected restaurants
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
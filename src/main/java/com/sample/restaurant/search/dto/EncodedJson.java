@@ -0,0 +1,82 @@
+package com.sample.restaurant.search.dto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The UTF-8 JSON encoding of a response, with the strong entity tag identifying it.
+ * The entity tag is derived from the bytes themselves, so every instance serving the same result hands out the
+ * same tag. The gzip variant is compressed on first use and kept, and has a tag of its own since its bytes differ.
+ */
+public final class EncodedJson {
+
+    private static final int TAG_BYTES = 12;
+
+    private final byte[] json;
+    private final String etag;
+    private final String gzipEtag;
+    private volatile byte[] gzipped;
+
+    public EncodedJson(byte[] json) {
+        this.json = json;
+        String tag = tagOf(json);
+        this.etag = "\"" + tag + "\"";
+        this.gzipEtag = "\"" + tag + "-gzip\"";
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * @return the strong entity tag of the identity encoding, quoted
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @return the JSON compressed with gzip
+     */
+    public byte[] getGzipped() {
+        byte[] compressed = gzipped;
+        if (compressed == null) {
+            // Concurrent first calls may both compress; they produce the same bytes
+            compressed = gzip(json);
+            gzipped = compressed;
+        }
+        return compressed;
+    }
+
+    /**
+     * @return the strong entity tag of the gzip encoding, quoted
+     */
+    public String getGzipEtag() {
+        return gzipEtag;
+    }
+
+    private static String tagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, TAG_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,13 +1,14 @@
 package com.sample.restaurant.search.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
-
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -39,6 +40,8 @@ public class RestaurantDetailsResponseDto {
     @Pattern(regexp = "^x=\\d+,y=\\d+$", message = "Coordinates must be in format x=3,y=2")
     private String coordinates;
 
+    private Instant updatedAt;
+
     public @NotBlank @Pattern(regexp = "^x=\\d+,y=\\d+$", message = "Coordinates must be in format x=3,y=2") String getCoordinates() {
         return coordinates;
     }
@@ -95,4 +98,17 @@ public class RestaurantDetailsResponseDto {
     public void setType(@NotBlank String type) {
         this.type = type;
     }
+
+    /**
+     * @return the time the restaurant was last written, used as its revision; not part of the JSON
+     */
+    @JsonIgnore
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @JsonIgnore
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
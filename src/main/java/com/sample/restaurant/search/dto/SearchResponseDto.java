@@ -1,15 +1,25 @@
 package com.sample.restaurant.search.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
  * Data Transfer Object for the search response containing user location and a list of restaurant locations.
  * This class is used to transfer search results in response to a user's location query.
+ * The JSON encoding of a response is kept once written, so a response served again from the search cache is
+ * written as bytes; setting any field discards it.
  */
 public class SearchResponseDto {
     private String userLocation;
     private List<LocationDto> locations;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer nextOffset;
+
+    private volatile EncodedJson encoded;
+
     public SearchResponseDto(String userLocation, List<LocationDto> locations) {
         this.userLocation = userLocation;
         this.locations = locations;
@@ -24,6 +34,19 @@ public class SearchResponseDto {
 
     public void setLocations(List<LocationDto> locations) {
         this.locations = locations;
+        this.encoded = null;
+    }
+
+    /**
+     * @return the offset of the next page of a limited search, or null if this is the last page
+     */
+    public Integer getNextOffset() {
+        return nextOffset;
+    }
+
+    public void setNextOffset(Integer nextOffset) {
+        this.nextOffset = nextOffset;
+        this.encoded = null;
     }
 
     public String getUserLocation() {
@@ -32,5 +55,19 @@ public class SearchResponseDto {
 
     public void setUserLocation(String userLocation) {
         this.userLocation = userLocation;
+        this.encoded = null;
+    }
+
+    /**
+     * @return the JSON encoding of this response, or null if it has not been encoded yet
+     */
+    @JsonIgnore
+    public EncodedJson getEncoded() {
+        return encoded;
+    }
+
+    @JsonIgnore
+    public void setEncoded(EncodedJson encoded) {
+        this.encoded = encoded;
     }
 }
@@ -70,6 +70,18 @@ public class GlobalExceptionHandler {
         return buildErrorResponse("Malformed JSON request: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles RepositoryBusyException.
+     * Returns a 503 Service Unavailable response, as the request may succeed once database load drops.
+     *
+     * @param ex the exception thrown when no database access was granted in time
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(RepositoryBusyException.class)
+    public ResponseEntity<Object> handleRepositoryBusy(RepositoryBusyException ex) {
+        return buildErrorResponse("Service busy: " + ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handles general exceptions.
      * Returns a 500 Internal Server Error response with a custom error message.
@@ -0,0 +1,12 @@
+package com.sample.restaurant.search.exception;
+
+/**
+ * Custom exception class for requests that could not get access to the database in time.
+ * This exception is thrown when all permitted concurrent repository calls are in use for longer than the
+ * configured maximum wait, so the caller should retry later instead of queueing for a MongoDB connection.
+ */
+public class RepositoryBusyException extends RuntimeException {
+    public RepositoryBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,154 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scans geometry blocks for the restaurants visible from a point, splitting large blocks into partitions that are
+ * scanned on a dedicated fork-join pool. Each partition filters its own range and, for nearest searches, keeps its
+ * own top K; the partial results are then merged. Blocks below the threshold are scanned on the calling thread,
+ * where forking would cost more than it saves.
+ */
+@Component
+public class BlockScanner {
+
+    /**
+     * Smallest partition worth a task of its own.
+     */
+    static final int MIN_PARTITION = 4096;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int partitionsPerWorker;
+
+    public BlockScanner(@Qualifier("searchForkJoinPool") ForkJoinPool pool,
+                        @Value("${restaurant.search.parallel.threshold:100000}") int threshold,
+                        @Value("${restaurant.search.parallel.partitions-per-worker:4}") int partitionsPerWorker) {
+        if (partitionsPerWorker < 1) {
+            throw new IllegalArgumentException("Partitions per worker must be at least 1");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+        this.partitionsPerWorker = partitionsPerWorker;
+    }
+
+    /**
+     * @return a scanner that always scans on the calling thread
+     */
+    public static BlockScanner sequential() {
+        return new BlockScanner(null, Integer.MAX_VALUE, 1);
+    }
+
+    /**
+     * Adds the restaurants of the block whose visibility disc contains the given point to the list.
+     *
+     * @param block the block to scan
+     * @param x     the x-coordinate
+     * @param y     the y-coordinate
+     * @param into  receives the visible restaurants, in block order
+     */
+    public void collectContaining(GeometryBlock block, int x, int y, List<RestaurantLocation> into) {
+        if (!isParallel(block)) {
+            block.forEachContaining(x, y, into::add);
+            return;
+        }
+        into.addAll(pool.invoke(new ContainingTask(block, x, y, 0, block.size(), partitionSize(block))));
+    }
+
+    /**
+     * Offers the restaurants of the block whose visibility disc contains the given point to the collector.
+     *
+     * @param block the block to scan
+     * @param x     the x-coordinate
+     * @param y     the y-coordinate
+     * @param into  keeps the nearest visible restaurants
+     */
+    public void collectNearest(GeometryBlock block, int x, int y, NearestRestaurants into) {
+        if (!isParallel(block)) {
+            block.collectNearest(x, y, 0, block.size(), into);
+            return;
+        }
+        into.merge(pool.invoke(new NearestTask(block, x, y, 0, block.size(), partitionSize(block), into.getK())));
+    }
+
+    private boolean isParallel(GeometryBlock block) {
+        return pool != null && block.size() >= threshold;
+    }
+
+    private int partitionSize(GeometryBlock block) {
+        return Math.max(MIN_PARTITION, block.size() / (pool.getParallelism() * partitionsPerWorker));
+    }
+
+    private static final class ContainingTask extends RecursiveTask<List<RestaurantLocation>> {
+        private final GeometryBlock block;
+        private final int x;
+        private final int y;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+
+        private ContainingTask(GeometryBlock block, int x, int y, int from, int to, int partitionSize) {
+            this.block = block;
+            this.x = x;
+            this.y = y;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+        }
+
+        @Override
+        protected List<RestaurantLocation> compute() {
+            if (to - from <= partitionSize) {
+                List<RestaurantLocation> visible = new ArrayList<>();
+                block.forEachContaining(x, y, from, to, visible::add);
+                return visible;
+            }
+            int middle = (from + to) >>> 1;
+            ContainingTask right = new ContainingTask(block, x, y, middle, to, partitionSize);
+            right.fork();
+            List<RestaurantLocation> visible = new ContainingTask(block, x, y, from, middle, partitionSize).compute();
+            visible.addAll(right.join());
+            return visible;
+        }
+    }
+
+    private static final class NearestTask extends RecursiveTask<NearestRestaurants> {
+        private final GeometryBlock block;
+        private final int x;
+        private final int y;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+        private final int k;
+
+        private NearestTask(GeometryBlock block, int x, int y, int from, int to, int partitionSize, int k) {
+            this.block = block;
+            this.x = x;
+            this.y = y;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+            this.k = k;
+        }
+
+        @Override
+        protected NearestRestaurants compute() {
+            if (to - from <= partitionSize) {
+                NearestRestaurants nearest = new NearestRestaurants(k);
+                block.collectNearest(x, y, from, to, nearest);
+                return nearest;
+            }
+            int middle = (from + to) >>> 1;
+            NearestTask right = new NearestTask(block, x, y, middle, to, partitionSize, k);
+            right.fork();
+            return new NearestTask(block, x, y, from, middle, partitionSize, k).compute().merge(right.join());
+        }
+    }
+}
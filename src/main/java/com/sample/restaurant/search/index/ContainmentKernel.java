@@ -0,0 +1,51 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Consumer;
+
+/**
+ * Visibility test over the primitive arrays of a {@link GeometryBlock}: finds the positions between from (inclusive)
+ * and to (exclusive) whose disc, given by its centre and squared radius, contains a point.
+ * Distances are squared in long arithmetic, so every implementation gives exactly the same result.
+ */
+interface ContainmentKernel {
+
+    /**
+     * Name of the system property that disables the SIMD kernel when set to false.
+     */
+    String SIMD_PROPERTY = "restaurant.search.simd";
+
+    void forEachContaining(int[] xs, int[] ys, long[] radiiSquared, RestaurantLocation[] restaurants,
+                           int x, int y, int from, int to, Consumer<RestaurantLocation> action);
+
+    void collectNearest(int[] xs, int[] ys, long[] radiiSquared, RestaurantLocation[] restaurants,
+                        int x, int y, int from, int to, NearestRestaurants collector);
+
+    /**
+     * @return the kernel used by geometry blocks: the SIMD kernel when the JVM runs with
+     * {@code --add-modules jdk.incubator.vector} and it is not disabled, the scalar kernel otherwise
+     */
+    static ContainmentKernel preferred() {
+        Logger logger = LoggerFactory.getLogger(ContainmentKernel.class);
+        if (!Boolean.parseBoolean(System.getProperty(SIMD_PROPERTY, "true"))) {
+            logger.info("SIMD containment kernel disabled by {}", SIMD_PROPERTY);
+            return ScalarContainmentKernel.INSTANCE;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            logger.info("jdk.incubator.vector is not available; using the scalar containment kernel");
+            return ScalarContainmentKernel.INSTANCE;
+        }
+        try {
+            ContainmentKernel kernel = (ContainmentKernel) Class.forName("com.sample.restaurant.search.index.VectorContainmentKernel")
+                    .getDeclaredConstructor().newInstance();
+            logger.info("Using the SIMD containment kernel: {}", kernel);
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warn("SIMD containment kernel unavailable, using the scalar kernel", e);
+            return ScalarContainmentKernel.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.RestaurantLocation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Immutable structure-of-arrays snapshot of restaurant geometry.
+ * The x and y coordinates and the squared radius of each restaurant are stored in parallel primitive arrays,
+ * with the restaurant itself at the same position of a reference array. Visibility tests therefore run as a
+ * tight loop over contiguous primitives, without dereferencing a restaurant or its coordinates and without a
+ * square root, and only visible restaurants are touched. Writes never modify a block: they create a copy with
+ * the change applied, so readers can scan a block without locking.
+ * The loop itself is a {@link ContainmentKernel}, vectorised when the Vector API is available.
+ */
+public final class GeometryBlock {
+
+    private static final ContainmentKernel KERNEL = ContainmentKernel.preferred();
+
+    public static final GeometryBlock EMPTY = new GeometryBlock(new int[0], new int[0], new long[0], new RestaurantLocation[0]);
+
+    private final int[] xs;
+    private final int[] ys;
+    private final long[] radiiSquared;
+    private final RestaurantLocation[] restaurants;
+
+    private GeometryBlock(int[] xs, int[] ys, long[] radiiSquared, RestaurantLocation[] restaurants) {
+        this.xs = xs;
+        this.ys = ys;
+        this.radiiSquared = radiiSquared;
+        this.restaurants = restaurants;
+    }
+
+    /**
+     * Creates a block holding the given restaurants, which must all have coordinates.
+     *
+     * @param restaurants the restaurants
+     * @return the block
+     */
+    public static GeometryBlock of(Collection<RestaurantLocation> restaurants) {
+        if (restaurants.isEmpty()) {
+            return EMPTY;
+        }
+        int size = restaurants.size();
+        int[] xs = new int[size];
+        int[] ys = new int[size];
+        long[] radiiSquared = new long[size];
+        RestaurantLocation[] refs = new RestaurantLocation[size];
+        int i = 0;
+        for (RestaurantLocation restaurant : restaurants) {
+            xs[i] = restaurant.getCoordinates().getX();
+            ys[i] = restaurant.getCoordinates().getY();
+            radiiSquared[i] = (long) restaurant.getRadius() * restaurant.getRadius();
+            refs[i] = restaurant;
+            i++;
+        }
+        return new GeometryBlock(xs, ys, radiiSquared, refs);
+    }
+
+    /**
+     * @param restaurant a restaurant with coordinates, not already in this block
+     * @return a copy of this block with the restaurant appended
+     */
+    public GeometryBlock with(RestaurantLocation restaurant) {
+        int size = restaurants.length;
+        int[] newXs = Arrays.copyOf(xs, size + 1);
+        int[] newYs = Arrays.copyOf(ys, size + 1);
+        long[] newRadiiSquared = Arrays.copyOf(radiiSquared, size + 1);
+        RestaurantLocation[] newRestaurants = Arrays.copyOf(restaurants, size + 1);
+        newXs[size] = restaurant.getCoordinates().getX();
+        newYs[size] = restaurant.getCoordinates().getY();
+        newRadiiSquared[size] = (long) restaurant.getRadius() * restaurant.getRadius();
+        newRestaurants[size] = restaurant;
+        return new GeometryBlock(newXs, newYs, newRadiiSquared, newRestaurants);
+    }
+
+    /**
+     * @param restaurant the exact instance to remove
+     * @return a copy of this block without the restaurant, or this block if it does not hold it
+     */
+    public GeometryBlock without(RestaurantLocation restaurant) {
+        int position = -1;
+        for (int i = 0; i < restaurants.length; i++) {
+            if (restaurants[i] == restaurant) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            return this;
+        }
+        if (restaurants.length == 1) {
+            return EMPTY;
+        }
+        return new GeometryBlock(remove(xs, position), remove(ys, position), remove(radiiSquared, position),
+                remove(restaurants, position));
+    }
+
+    /**
+     * Passes every restaurant of this block whose visibility disc contains the given point to the action.
+     *
+     * @param x      the x-coordinate
+     * @param y      the y-coordinate
+     * @param action receives the visible restaurants, in block order
+     */
+    public void forEachContaining(int x, int y, Consumer<RestaurantLocation> action) {
+        forEachContaining(x, y, 0, restaurants.length, action);
+    }
+
+    /**
+     * Same as {@link #forEachContaining(int, int, Consumer)}, limited to the positions from (inclusive) to
+     * (exclusive), so that partitions of a block can be scanned independently.
+     */
+    void forEachContaining(int x, int y, int from, int to, Consumer<RestaurantLocation> action) {
+        forEachContaining(KERNEL, x, y, from, to, action);
+    }
+
+    /**
+     * Offers every restaurant between the positions from (inclusive) and to (exclusive) whose visibility disc
+     * contains the given point to the collector, along with its squared distance to the point.
+     */
+    void collectNearest(int x, int y, int from, int to, NearestRestaurants collector) {
+        KERNEL.collectNearest(xs, ys, radiiSquared, restaurants, x, y, from, to, collector);
+    }
+
+    /**
+     * Scans with the given kernel instead of the preferred one, so that kernels can be compared.
+     */
+    void forEachContaining(ContainmentKernel kernel, int x, int y, int from, int to, Consumer<RestaurantLocation> action) {
+        kernel.forEachContaining(xs, ys, radiiSquared, restaurants, x, y, from, to, action);
+    }
+
+    public int size() {
+        return restaurants.length;
+    }
+
+    public boolean isEmpty() {
+        return restaurants.length == 0;
+    }
+
+    private static int[] remove(int[] array, int position) {
+        int[] copy = new int[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, position);
+        System.arraycopy(array, position + 1, copy, position, copy.length - position);
+        return copy;
+    }
+
+    private static long[] remove(long[] array, int position) {
+        long[] copy = new long[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, position);
+        System.arraycopy(array, position + 1, copy, position, copy.length - position);
+        return copy;
+    }
+
+    private static RestaurantLocation[] remove(RestaurantLocation[] array, int position) {
+        RestaurantLocation[] copy = new RestaurantLocation[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, position);
+        System.arraycopy(array, position + 1, copy, position, copy.length - position);
+        return copy;
+    }
+}
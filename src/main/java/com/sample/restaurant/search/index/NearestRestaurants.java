@@ -0,0 +1,83 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.RestaurantLocation;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the k visible restaurants nearest to a point, and counts all visible restaurants offered.
+ * Distances are compared squared and ties are broken by ID, as in the response mapper, so pages stay stable.
+ * Collectors of disjoint partitions can be merged; a collector is not thread safe on its own.
+ */
+public final class NearestRestaurants {
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingLong(Candidate::distanceSquared)
+            .thenComparing(candidate -> candidate.restaurant().getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final int k;
+    private final PriorityQueue<Candidate> farthestFirst;
+    private int visibleCount;
+
+    public NearestRestaurants(int k) {
+        this.k = Math.max(0, k);
+        this.farthestFirst = new PriorityQueue<>(Math.min(this.k, 1024) + 1, NEAREST_FIRST.reversed());
+    }
+
+    /**
+     * Offers a visible restaurant.
+     *
+     * @param distanceSquared the squared distance between the restaurant and the point
+     * @param restaurant      the restaurant
+     */
+    void offer(long distanceSquared, RestaurantLocation restaurant) {
+        visibleCount++;
+        keep(new Candidate(distanceSquared, restaurant));
+    }
+
+    /**
+     * Adds the restaurants collected by another collector for a disjoint set of restaurants.
+     *
+     * @param other the other collector
+     * @return this collector
+     */
+    NearestRestaurants merge(NearestRestaurants other) {
+        visibleCount += other.visibleCount;
+        other.farthestFirst.forEach(this::keep);
+        return this;
+    }
+
+    /**
+     * @return the nearest restaurants collected, nearest first
+     */
+    public List<RestaurantLocation> getRestaurants() {
+        return farthestFirst.stream().sorted(NEAREST_FIRST).map(Candidate::restaurant).toList();
+    }
+
+    /**
+     * @return the maximum number of restaurants kept
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @return the number of visible restaurants offered, including those that were not kept
+     */
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    private void keep(Candidate candidate) {
+        if (farthestFirst.size() < k) {
+            farthestFirst.add(candidate);
+        } else if (k > 0 && NEAREST_FIRST.compare(candidate, farthestFirst.peek()) < 0) {
+            farthestFirst.poll();
+            farthestFirst.add(candidate);
+        }
+    }
+
+    private record Candidate(long distanceSquared, RestaurantLocation restaurant) {
+    }
+}
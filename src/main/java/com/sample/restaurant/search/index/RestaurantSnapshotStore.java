@@ -0,0 +1,192 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Local binary snapshot of the indexed restaurants, so that a restart can rebuild the spatial index from disk and
+ * only read the restaurants written since from MongoDB.
+ * <p>
+ * The file holds a header (magic, version, time the snapshot was taken, number of restaurants), then per restaurant
+ * its x, y and radius as ints and its id and name as length-prefixed UTF-8, and ends with a CRC32 of everything
+ * before it. It is read through a memory mapping and written to a temporary file that is then moved over the
+ * previous snapshot, so a reader never sees a partial file; a file that does not check out is ignored.
+ */
+@Component
+public class RestaurantSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantSnapshotStore.class);
+
+    private static final int MAGIC = 0x52534E50;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES;
+    private static final int NULL_LENGTH = -1;
+
+    private final Path path;
+
+    public RestaurantSnapshotStore(@Value("${restaurant.index.snapshot.path:${java.io.tmpdir}/restaurant-search/restaurants.snapshot}") Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads the snapshot, if there is a valid one.
+     *
+     * @return the snapshot, or empty if there is none or it is corrupt or of another version
+     */
+    public Optional<Snapshot> read() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(decode(buffer));
+        } catch (NoSuchFileException e) {
+            logger.info("No restaurant snapshot at {}", path);
+        } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+            logger.warn("Ignoring unreadable restaurant snapshot {}: {}", path, e.toString());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Replaces the snapshot with the given restaurants.
+     *
+     * @param restaurants the restaurants to save
+     * @param takenAt     the time the restaurants were read; writes after it are caught up from MongoDB
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    public void write(Collection<RestaurantLocation> restaurants, Instant takenAt) {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temporary)) {
+                    encode(restaurants, takenAt, out);
+                }
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write restaurant snapshot " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    static void encode(Collection<RestaurantLocation> restaurants, Instant takenAt, OutputStream target) throws IOException {
+        CRC32 crc = new CRC32();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(target, crc), 1 << 16));
+        List<RestaurantLocation> indexable = restaurants.stream()
+                .filter(r -> r.getId() != null && r.getCoordinates() != null)
+                .toList();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(takenAt.toEpochMilli());
+        out.writeInt(indexable.size());
+        for (RestaurantLocation restaurant : indexable) {
+            out.writeInt(restaurant.getCoordinates().getX());
+            out.writeInt(restaurant.getCoordinates().getY());
+            out.writeInt(restaurant.getRadius());
+            writeString(out, restaurant.getId());
+            writeString(out, restaurant.getName());
+        }
+        out.flush();
+        // The checksum covers everything written so far and is itself written around the checked stream
+        DataOutputStream trailer = new DataOutputStream(target);
+        trailer.writeLong(crc.getValue());
+        trailer.flush();
+    }
+
+    static Snapshot decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES + Long.BYTES) {
+            throw new IllegalArgumentException("truncated snapshot");
+        }
+        int end = buffer.limit() - Long.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(end));
+        if (crc.getValue() != buffer.getLong(end)) {
+            throw new IllegalArgumentException("checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("not a restaurant snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported snapshot version " + version);
+        }
+        Instant takenAt = Instant.ofEpochMilli(buffer.getLong());
+        int count = buffer.getInt();
+        ByteBuffer records = buffer.slice(buffer.position(), end - buffer.position());
+        List<RestaurantLocation> restaurants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Coordinates coordinates = new Coordinates(records.getInt(), records.getInt());
+            int radius = records.getInt();
+            String id = readString(records);
+            String name = readString(records);
+            restaurants.add(new RestaurantLocation(id, name, coordinates, radius));
+        }
+        if (records.hasRemaining()) {
+            throw new IllegalArgumentException("unexpected data after the last restaurant");
+        }
+        return new Snapshot(takenAt, restaurants);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Restaurants read from a snapshot.
+     *
+     * @param takenAt     the time the restaurants were read from the index
+     * @param restaurants the restaurants
+     */
+    public record Snapshot(Instant takenAt, List<RestaurantLocation> restaurants) {
+    }
+}
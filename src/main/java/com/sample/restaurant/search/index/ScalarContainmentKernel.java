@@ -0,0 +1,47 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.RestaurantLocation;
+
+import java.util.function.Consumer;
+
+/**
+ * Containment test as a plain loop, one restaurant per iteration. Used when the Vector API is not available, and
+ * for the tail of a block that does not fill a whole vector.
+ */
+final class ScalarContainmentKernel implements ContainmentKernel {
+
+    static final ScalarContainmentKernel INSTANCE = new ScalarContainmentKernel();
+
+    private ScalarContainmentKernel() {
+    }
+
+    @Override
+    public void forEachContaining(int[] xs, int[] ys, long[] radiiSquared, RestaurantLocation[] restaurants,
+                                  int x, int y, int from, int to, Consumer<RestaurantLocation> action) {
+        for (int i = from; i < to; i++) {
+            long dx = (long) xs[i] - x;
+            long dy = (long) ys[i] - y;
+            if (dx * dx + dy * dy <= radiiSquared[i]) {
+                action.accept(restaurants[i]);
+            }
+        }
+    }
+
+    @Override
+    public void collectNearest(int[] xs, int[] ys, long[] radiiSquared, RestaurantLocation[] restaurants,
+                               int x, int y, int from, int to, NearestRestaurants collector) {
+        for (int i = from; i < to; i++) {
+            long dx = (long) xs[i] - x;
+            long dy = (long) ys[i] - y;
+            long distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared <= radiiSquared[i]) {
+                collector.offer(distanceSquared, restaurants[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,339 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Resident spatial index over restaurant visibility discs.
+ * The coordinate space is divided into square cells and every restaurant is registered in each cell
+ * touched by the bounding box of its disc, so a point query only inspects the restaurants of one cell
+ * instead of the whole catalogue. Discs covering too many cells are kept in a separate block that is
+ * always checked, which keeps memory bounded for restaurants with very large radii.
+ * Each cell holds an immutable {@link GeometryBlock}, so the visibility test of a query is a primitive loop;
+ * blocks large enough to be worth it are scanned in partitions by the {@link BlockScanner}.
+ * <p>
+ * Single writes made while a rebuild reads and builds the catalogue are recorded and replayed on the new grid
+ * before it replaces the old one, so a write applied during a rebuild is not lost with the old grid.
+ */
+@Component
+public class SpatialGridIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpatialGridIndex.class);
+
+    private final int cellSize;
+    private final int maxCellsPerEntry;
+    private final BlockScanner scanner;
+    private final Object writeLock = new Object();
+
+    private volatile Grid grid = new Grid();
+    private volatile boolean loaded;
+    /** Writes made since each rebuild in progress started; guarded by writeLock. */
+    private final List<List<Consumer<Grid>>> rebuildWrites = new ArrayList<>();
+
+    public SpatialGridIndex(@Value("${restaurant.index.cell-size:16}") int cellSize,
+                            @Value("${restaurant.index.max-cells-per-entry:1024}") int maxCellsPerEntry,
+                            BlockScanner scanner) {
+        if (cellSize < 1) {
+            throw new IllegalArgumentException("Cell size must be at least 1");
+        }
+        this.cellSize = cellSize;
+        this.maxCellsPerEntry = maxCellsPerEntry;
+        this.scanner = scanner;
+    }
+
+    /**
+     * Replaces the content of the index with the given restaurants and marks the index as loaded.
+     *
+     * @param restaurants the complete restaurant catalogue
+     */
+    public void rebuild(Iterable<RestaurantLocation> restaurants) {
+        rebuild(() -> restaurants);
+    }
+
+    /**
+     * Replaces the content of the index with the restaurants read from the given source and marks the index as
+     * loaded. Single writes made from the moment the source is read until the new content is swapped in are
+     * replayed on it, so the source only needs to reflect the writes made before it was called.
+     *
+     * @param catalogue reads the complete restaurant catalogue
+     */
+    public void rebuild(Supplier<? extends Iterable<RestaurantLocation>> catalogue) {
+        List<Consumer<Grid>> writes = new ArrayList<>();
+        synchronized (writeLock) {
+            rebuildWrites.add(writes);
+        }
+        Grid fresh;
+        try {
+            fresh = build(catalogue.get());
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                rebuildWrites.remove(writes);
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            rebuildWrites.remove(writes);
+            writes.forEach(write -> write.accept(fresh));
+            grid = fresh;
+            loaded = true;
+        }
+        logger.info("Spatial index built with {} restaurants in {} cells, {} writes replayed",
+                fresh.entries.size(), fresh.cells.size(), writes.size());
+    }
+
+    /**
+     * Adds a restaurant to the index or moves it to its new position and radius.
+     *
+     * @param restaurant the restaurant as persisted
+     */
+    public void upsert(RestaurantLocation restaurant) {
+        write(target -> {
+            RestaurantLocation previous = target.entries.get(restaurant.getId());
+            if (previous != null) {
+                unlink(target, previous);
+            }
+            insert(target, restaurant);
+        });
+    }
+
+    /**
+     * Removes a restaurant from the index.
+     *
+     * @param id the ID of the restaurant to remove
+     */
+    public void remove(String id) {
+        write(target -> {
+            RestaurantLocation previous = target.entries.get(id);
+            if (previous != null) {
+                unlink(target, previous);
+            }
+        });
+    }
+
+    /**
+     * Finds all restaurants whose visibility disc contains the given point.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return the visible restaurants, in no particular order
+     */
+    public List<RestaurantLocation> query(int x, int y) {
+        Grid current = grid;
+        List<RestaurantLocation> result = new ArrayList<>();
+        GeometryBlock cell = current.cells.get(cellKey(cellOf(x), cellOf(y)));
+        if (cell != null) {
+            scanner.collectContaining(cell, x, y, result);
+        }
+        scanner.collectContaining(current.oversized, x, y, result);
+        return result;
+    }
+
+    /**
+     * Counts the restaurants a query from the given point scans, visible or not.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return the number of restaurants in the cell of the point and in the oversized block
+     */
+    public int candidateCount(int x, int y) {
+        Grid current = grid;
+        GeometryBlock cell = current.cells.get(cellKey(cellOf(x), cellOf(y)));
+        return (cell != null ? cell.size() : 0) + current.oversized.size();
+    }
+
+    /**
+     * Finds the k restaurants nearest to the given point among those whose visibility disc contains it.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param k the maximum number of restaurants to keep
+     * @return the nearest visible restaurants, along with the number of visible restaurants
+     */
+    public NearestRestaurants nearest(int x, int y, int k) {
+        Grid current = grid;
+        NearestRestaurants nearest = new NearestRestaurants(k);
+        GeometryBlock cell = current.cells.get(cellKey(cellOf(x), cellOf(y)));
+        if (cell != null) {
+            scanner.collectNearest(cell, x, y, nearest);
+        }
+        scanner.collectNearest(current.oversized, x, y, nearest);
+        return nearest;
+    }
+
+    /**
+     * Passes every restaurant whose visibility disc contains the given point to the action, without
+     * collecting them first.
+     *
+     * @param x      the x-coordinate
+     * @param y      the y-coordinate
+     * @param action receives the visible restaurants, in no particular order
+     */
+    public void forEachVisible(int x, int y, Consumer<RestaurantLocation> action) {
+        Grid current = grid;
+        GeometryBlock cell = current.cells.get(cellKey(cellOf(x), cellOf(y)));
+        if (cell != null) {
+            cell.forEachContaining(x, y, action);
+        }
+        current.oversized.forEachContaining(x, y, action);
+    }
+
+    /**
+     * Returns the indexed version of a restaurant.
+     *
+     * @param id the ID of the restaurant
+     * @return the restaurant, or empty if it is not indexed
+     */
+    public Optional<RestaurantLocation> get(String id) {
+        return Optional.ofNullable(grid.entries.get(id));
+    }
+
+    /**
+     * @return a copy of the indexed restaurants, in no particular order
+     */
+    public List<RestaurantLocation> restaurants() {
+        return List.copyOf(grid.entries.values());
+    }
+
+    /**
+     * @return true once the index has been built from the repository and can serve queries
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return grid.entries.size();
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Checks whether a point lies inside a restaurant's visibility disc.
+     * Uses squared distances in long arithmetic, which avoids both the square root and int overflow.
+     */
+    public static boolean contains(RestaurantLocation restaurant, int x, int y) {
+        Coordinates coordinates = restaurant.getCoordinates();
+        long dx = (long) coordinates.getX() - x;
+        long dy = (long) coordinates.getY() - y;
+        long radius = restaurant.getRadius();
+        return dx * dx + dy * dy <= radius * radius;
+    }
+
+    private static boolean isIndexable(RestaurantLocation restaurant) {
+        if (restaurant.getId() == null || restaurant.getCoordinates() == null) {
+            logger.warn("Skipping restaurant without id or coordinates: {}", restaurant.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private Grid build(Iterable<RestaurantLocation> restaurants) {
+        Grid fresh = new Grid();
+        Map<Long, List<RestaurantLocation>> cells = new HashMap<>();
+        List<RestaurantLocation> oversized = new ArrayList<>();
+        for (RestaurantLocation restaurant : restaurants) {
+            if (!isIndexable(restaurant)) {
+                continue;
+            }
+            fresh.entries.put(restaurant.getId(), restaurant);
+            if (isOversized(restaurant)) {
+                oversized.add(restaurant);
+            } else {
+                forEachCell(restaurant, key -> cells.computeIfAbsent(key, k -> new ArrayList<>()).add(restaurant));
+            }
+        }
+        cells.forEach((key, cell) -> fresh.cells.put(key, GeometryBlock.of(cell)));
+        fresh.oversized = GeometryBlock.of(oversized);
+        return fresh;
+    }
+
+    private void write(Consumer<Grid> write) {
+        synchronized (writeLock) {
+            write.accept(grid);
+            for (List<Consumer<Grid>> writes : rebuildWrites) {
+                writes.add(write);
+            }
+        }
+    }
+
+    private void insert(Grid target, RestaurantLocation restaurant) {
+        if (!isIndexable(restaurant)) {
+            return;
+        }
+        target.entries.put(restaurant.getId(), restaurant);
+        if (isOversized(restaurant)) {
+            target.oversized = target.oversized.with(restaurant);
+            return;
+        }
+        forEachCell(restaurant, key -> target.cells
+                .compute(key, (k, cell) -> (cell != null ? cell : GeometryBlock.EMPTY).with(restaurant)));
+    }
+
+    private void unlink(Grid target, RestaurantLocation restaurant) {
+        target.entries.remove(restaurant.getId());
+        if (isOversized(restaurant)) {
+            target.oversized = target.oversized.without(restaurant);
+            return;
+        }
+        forEachCell(restaurant, key -> target.cells.computeIfPresent(key, (k, cell) -> {
+            GeometryBlock remaining = cell.without(restaurant);
+            return remaining.isEmpty() ? null : remaining;
+        }));
+    }
+
+    private boolean isOversized(RestaurantLocation restaurant) {
+        Coordinates c = restaurant.getCoordinates();
+        long radius = Math.max(0, restaurant.getRadius());
+        long columns = (long) cellOf(c.getX() + radius) - cellOf(c.getX() - radius) + 1;
+        long rows = (long) cellOf(c.getY() + radius) - cellOf(c.getY() - radius) + 1;
+        return columns * rows > maxCellsPerEntry;
+    }
+
+    private void forEachCell(RestaurantLocation restaurant, LongConsumer action) {
+        Coordinates c = restaurant.getCoordinates();
+        long radius = Math.max(0, restaurant.getRadius());
+        int minCx = cellOf(c.getX() - radius);
+        int maxCx = cellOf(c.getX() + radius);
+        int minCy = cellOf(c.getY() - radius);
+        int maxCy = cellOf(c.getY() + radius);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                action.accept(cellKey(cx, cy));
+            }
+        }
+    }
+
+    private int cellOf(long coordinate) {
+        return (int) Math.floorDiv(coordinate, cellSize);
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /**
+     * One generation of the index; replaced wholesale on rebuild. Single writes swap in copies of the affected
+     * geometry blocks, so a query always scans a consistent block.
+     */
+    private static final class Grid {
+        private final Map<String, RestaurantLocation> entries = new ConcurrentHashMap<>();
+        private final Map<Long, GeometryBlock> cells = new ConcurrentHashMap<>();
+        private volatile GeometryBlock oversized = GeometryBlock.EMPTY;
+    }
+}
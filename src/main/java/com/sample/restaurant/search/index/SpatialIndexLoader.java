@@ -0,0 +1,137 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.exception.RepositoryBusyException;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Builds the spatial index once the application has started.
+ * If a snapshot of a previous run is available the index is restored from it and only the restaurants written
+ * since the snapshot was taken are read from the repository; otherwise the whole catalogue is read and a snapshot
+ * is saved for the next start; writes applied to the index while the catalogue is read are replayed on it by
+ * {@link SpatialGridIndex#rebuild(java.util.function.Supplier)}. The snapshot is refreshed periodically while the
+ * application runs.
+ * If the changes since a restored snapshot cannot be read, the index is used as restored but no snapshot is saved
+ * over the old one until the catch-up, retried before each periodic save, has succeeded; a newer snapshot would
+ * otherwise hide the missed changes from the next start.
+ * If the index is disabled or the database cannot be reached (and there is no snapshot) the index stays unloaded
+ * and searches fall back to the repository. Runs before the cache warm-up, which replays searches against the
+ * loaded index.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class SpatialIndexLoader implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpatialIndexLoader.class);
+
+    private final RestaurantRepository restaurantRepository;
+    private final SpatialGridIndex spatialIndex;
+    private final RestaurantSnapshotStore snapshotStore;
+    private final boolean enabled;
+    private final boolean snapshotEnabled;
+    private final Duration catchUpOverlap;
+
+    private volatile Instant pendingCatchUp;
+
+    public SpatialIndexLoader(RestaurantRepository restaurantRepository, SpatialGridIndex spatialIndex,
+                              RestaurantSnapshotStore snapshotStore,
+                              @Value("${restaurant.index.enabled:true}") boolean enabled,
+                              @Value("${restaurant.index.snapshot.enabled:true}") boolean snapshotEnabled,
+                              @Value("${restaurant.index.snapshot.catch-up-overlap:1m}") Duration catchUpOverlap) {
+        this.restaurantRepository = restaurantRepository;
+        this.spatialIndex = spatialIndex;
+        this.snapshotStore = snapshotStore;
+        this.enabled = enabled;
+        this.snapshotEnabled = snapshotEnabled;
+        this.catchUpOverlap = catchUpOverlap;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            logger.info("Spatial index disabled, searches will query the repository per tile");
+            return;
+        }
+        Optional<RestaurantSnapshotStore.Snapshot> snapshot = snapshotEnabled ? snapshotStore.read() : Optional.empty();
+        if (snapshot.isPresent()) {
+            restore(snapshot.get());
+            return;
+        }
+        try {
+            spatialIndex.rebuild(restaurantRepository::findAllLocations);
+        } catch (DataAccessException e) {
+            logger.warn("Could not build spatial index, searches will use the repository: {}", e.getMessage());
+            return;
+        }
+        saveSnapshot();
+    }
+
+    /**
+     * Saves the current content of the index as the snapshot for the next start.
+     */
+    @Scheduled(initialDelayString = "${restaurant.index.snapshot.save-interval:PT10M}",
+            fixedDelayString = "${restaurant.index.snapshot.save-interval:PT10M}")
+    public void saveSnapshot() {
+        if (!enabled || !snapshotEnabled || !spatialIndex.isLoaded()) {
+            return;
+        }
+        Instant since = pendingCatchUp;
+        if (since != null && !catchUp(since)) {
+            logger.warn("Restaurant snapshot not saved, the changes since {} have not been read yet", since);
+            return;
+        }
+        // Taken before the restaurants are copied, so that writes made meanwhile are caught up on restore
+        Instant takenAt = Instant.now();
+        List<RestaurantLocation> restaurants = spatialIndex.restaurants();
+        try {
+            snapshotStore.write(restaurants, takenAt);
+            logger.info("Saved snapshot of {} restaurants to {}", restaurants.size(), snapshotStore.getPath());
+        } catch (UncheckedIOException e) {
+            logger.warn("Could not save restaurant snapshot: {}", e.getMessage());
+        }
+    }
+
+    private void restore(RestaurantSnapshotStore.Snapshot snapshot) {
+        spatialIndex.rebuild(snapshot.restaurants());
+        logger.info("Spatial index restored from the snapshot of {} with {} restaurants",
+                snapshot.takenAt(), snapshot.restaurants().size());
+        // Writes are stamped by the writing instance's clock, hence the overlap
+        catchUp(snapshot.takenAt().minus(catchUpOverlap));
+    }
+
+    /**
+     * Applies the restaurants written since the given instant to the index.
+     *
+     * @return true if the changes were read, false if they are still pending
+     */
+    private boolean catchUp(Instant since) {
+        try {
+            List<RestaurantLocation> changed = restaurantRepository.findLocationsUpdatedSince(since);
+            changed.forEach(spatialIndex::upsert);
+            pendingCatchUp = null;
+            logger.info("Spatial index caught up with {} restaurants changed since {}", changed.size(), since);
+            return true;
+        } catch (DataAccessException | RepositoryBusyException e) {
+            pendingCatchUp = since;
+            logger.warn("Changes to restaurants since {} could not be read, the index may miss them: {}",
+                    since, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.RestaurantLocation;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.function.Consumer;
+
+/**
+ * Containment test on the Vector API, evaluating one vector of restaurants per iteration.
+ * Coordinates are loaded as ints and widened to longs so that squares cannot overflow, exactly as in the scalar
+ * kernel; the lanes that pass are then visited through the bits of the comparison mask, so only visible restaurants
+ * are touched. Only loaded reflectively by {@link ContainmentKernel#preferred()}, as the module is incubating.
+ */
+final class VectorContainmentKernel implements ContainmentKernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.length() * Integer.SIZE));
+
+    @Override
+    public void forEachContaining(int[] xs, int[] ys, long[] radiiSquared, RestaurantLocation[] restaurants,
+                                  int x, int y, int from, int to, Consumer<RestaurantLocation> action) {
+        int lanes = LONGS.length();
+        int upper = from + LONGS.loopBound(to - from);
+        int i = from;
+        for (; i < upper; i += lanes) {
+            long visible = distancesSquared(xs, ys, x, y, i)
+                    .compare(VectorOperators.LE, LongVector.fromArray(LONGS, radiiSquared, i))
+                    .toLong();
+            while (visible != 0) {
+                action.accept(restaurants[i + Long.numberOfTrailingZeros(visible)]);
+                visible &= visible - 1;
+            }
+        }
+        ScalarContainmentKernel.INSTANCE.forEachContaining(xs, ys, radiiSquared, restaurants, x, y, i, to, action);
+    }
+
+    @Override
+    public void collectNearest(int[] xs, int[] ys, long[] radiiSquared, RestaurantLocation[] restaurants,
+                               int x, int y, int from, int to, NearestRestaurants collector) {
+        int lanes = LONGS.length();
+        int upper = from + LONGS.loopBound(to - from);
+        long[] distances = new long[lanes];
+        int i = from;
+        for (; i < upper; i += lanes) {
+            LongVector distancesSquared = distancesSquared(xs, ys, x, y, i);
+            long visible = distancesSquared
+                    .compare(VectorOperators.LE, LongVector.fromArray(LONGS, radiiSquared, i))
+                    .toLong();
+            if (visible == 0) {
+                continue;
+            }
+            distancesSquared.intoArray(distances, 0);
+            while (visible != 0) {
+                int lane = Long.numberOfTrailingZeros(visible);
+                collector.offer(distances[lane], restaurants[i + lane]);
+                visible &= visible - 1;
+            }
+        }
+        ScalarContainmentKernel.INSTANCE.collectNearest(xs, ys, radiiSquared, restaurants, x, y, i, to, collector);
+    }
+
+    private static LongVector distancesSquared(int[] xs, int[] ys, int x, int y, int i) {
+        LongVector dx = ((LongVector) IntVector.fromArray(INTS, xs, i).convertShape(VectorOperators.I2L, LONGS, 0)).sub(x);
+        LongVector dy = ((LongVector) IntVector.fromArray(INTS, ys, i).convertShape(VectorOperators.I2L, LONGS, 0)).sub(y);
+        return dx.mul(dx).add(dy.mul(dy));
+    }
+
+    @Override
+    public String toString() {
+        return "vector " + LONGS;
+    }
+}
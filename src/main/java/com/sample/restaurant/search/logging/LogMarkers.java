@@ -0,0 +1,19 @@
+package com.sample.restaurant.search.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers the application puts on its log lines.
+ */
+public final class LogMarkers {
+
+    /**
+     * Marks a line logged on every request, which the prod profile keeps only a sample of; see
+     * {@link SamplingTurboFilter}.
+     */
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,67 @@
+package com.sample.restaurant.search.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter keeping one in {@code rate} of the log lines carrying the given marker, by default
+ * {@link LogMarkers#SAMPLED}. Lines logged on every request would otherwise grow with the traffic; sampling them
+ * keeps a representative trace while bounding the cost, and since turbo filters run before the event is built, a
+ * dropped line costs a counter increment on the request thread. Unmarked lines, and marked lines above
+ * {@code maxLevel} (by default WARN and ERROR), are left to the logger levels.
+ * <p>
+ * Calls to {@code isDebugEnabled()} and the like are left alone, so guarded blocks still run and the sampling
+ * applies to the line they log.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+    private String marker = LogMarkers.SAMPLED.getName();
+    private Level maxLevel = Level.INFO;
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || !marker.contains(this.marker) || !isStarted() || format == null || rate <= 1
+                || level.toInt() > maxLevel.toInt() || level.toInt() < logger.getEffectiveLevel().toInt()) {
+            // Not sampled, or disabled anyway: counting it would skew the sample
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (rate < 1) {
+            addError("Sampling rate must be at least 1, got " + rate);
+            return;
+        }
+        super.start();
+    }
+
+    /**
+     * @param marker the name of the marker whose lines are sampled
+     */
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    /**
+     * @param maxLevel the most severe level that is sampled
+     */
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+    }
+
+    /**
+     * @param rate keep one line in this many; 1 keeps every line
+     */
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sample.restaurant.search.mapper;
+
+import com.sample.restaurant.search.model.Coordinates;
+
+/**
+ * Reads and writes coordinates in the {@code x=3,y=2} form used by the API.
+ * Both directions run on every search result and every write, so they avoid regular expressions, splits and
+ * {@code String.format}: parsing walks the characters once without allocating, and formatting is a plain
+ * concatenation, which the JDK sizes and fills in one pass.
+ */
+public final class CoordinatesCodec {
+
+    private static final String INVALID = "Invalid coordinates format";
+
+    private CoordinatesCodec() {
+    }
+
+    /**
+     * Formats a point.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return the point as {@code x=<x>,y=<y>}
+     */
+    public static String format(int x, int y) {
+        return "x=" + x + ",y=" + y;
+    }
+
+    /**
+     * Formats coordinates, reading missing coordinates as the origin.
+     *
+     * @param coordinates the coordinates, or null
+     * @return the coordinates as {@code x=<x>,y=<y>}
+     */
+    public static String format(Coordinates coordinates) {
+        return coordinates != null ? format(coordinates.getX(), coordinates.getY()) : "x=0,y=0";
+    }
+
+    /**
+     * Parses coordinates written as {@code x=<digits>,y=<digits>}, with no sign, spaces or other characters.
+     *
+     * @param text the text to parse
+     * @return the parsed coordinates
+     * @throws IllegalArgumentException if the text is null, not in this form or a coordinate exceeds an int
+     */
+    public static Coordinates parse(CharSequence text) {
+        if (text == null || text.length() < 7 || text.charAt(0) != 'x' || text.charAt(1) != '=') {
+            throw new IllegalArgumentException(INVALID);
+        }
+        int length = text.length();
+        int comma = 2;
+        while (comma < length && text.charAt(comma) != ',') {
+            comma++;
+        }
+        if (comma + 3 >= length || text.charAt(comma + 1) != 'y' || text.charAt(comma + 2) != '=') {
+            throw new IllegalArgumentException(INVALID);
+        }
+        int x = parseDigits(text, 2, comma);
+        int y = parseDigits(text, comma + 3, length);
+        return new Coordinates(x, y);
+    }
+
+    private static int parseDigits(CharSequence text, int from, int to) {
+        if (from >= to) {
+            throw new IllegalArgumentException(INVALID);
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException(INVALID);
+            }
+            if (value > (Integer.MAX_VALUE - digit) / 10) {
+                throw new IllegalArgumentException("Coordinate out of range");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
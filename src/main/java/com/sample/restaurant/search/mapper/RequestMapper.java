@@ -29,12 +29,6 @@ public interface RequestMapper {
 
     @Named("stringToCoordinates")
     default Coordinates stringToCoordinates(String coordinates) {
-        if (coordinates == null || !coordinates.matches("^x=\\d+,y=\\d+$")) {
-            throw new IllegalArgumentException("Invalid coordinates format");
-        }
-        String[] parts = coordinates.split(",");
-        int x = Integer.parseInt(parts[0].split("=")[1]);
-        int y = Integer.parseInt(parts[1].split("=")[1]);
-        return new Coordinates(x, y);
+        return CoordinatesCodec.parse(coordinates);
     }
 }
@@ -3,15 +3,19 @@ package com.sample.restaurant.search.mapper;
 import com.sample.restaurant.search.dto.LocationDto;
 import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
 import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.index.NearestRestaurants;
 import com.sample.restaurant.search.model.Coordinates;
 import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Mapper interface for converting between Restaurant entities and response DTOs(SearchResponseDto & RestaurantDetailsResponseDto).
@@ -25,6 +29,14 @@ public interface ResponseMapper {
     @Mapping(target = "distance", expression = "java(calculateDistance(restaurant.getCoordinates(), x, y))")
     LocationDto toLocation(Restaurant restaurant, int x, int y);
 
+    /**
+     * Maps the lean search view of a restaurant, as read by the search path, to a LocationDto.
+     */
+    @Mapping(source = "restaurant.id", target = "id", qualifiedByName = "stringToUUID")
+    @Mapping(target = "coordinates", expression = "java(formatCoordinates(restaurant.getCoordinates()))")
+    @Mapping(target = "distance", expression = "java(calculateDistance(restaurant.getCoordinates(), x, y))")
+    LocationDto toLocation(RestaurantLocation restaurant, int x, int y);
+
     @Mapping(source = "coordinates", target = "coordinates", qualifiedByName = "formatCoordinates")
     @Mapping(source = "id", target = "id", qualifiedByName = "stringToUUID")
     RestaurantDetailsResponseDto toDto(Restaurant restaurant);
@@ -45,7 +57,7 @@ public interface ResponseMapper {
 
     }
 
-    default List<LocationDto> toLocations(List<Restaurant> restaurants, int x, int y) {
+    default List<LocationDto> toLocations(List<RestaurantLocation> restaurants, int x, int y) {
         return restaurants.stream()
                 .map(r -> toLocation(r, x, y))
                 .sorted(Comparator.comparingDouble(LocationDto::getDistance))
@@ -53,24 +65,139 @@ public interface ResponseMapper {
     }
 
     /**
-     * Converts a list of Restaurant entities to a SearchResponseDto.
+     * Selects the k restaurants nearest to the given location, sorted by distance.
+     * Uses a bounded max-heap, so only k restaurants are ever ordered and mapped; ties are broken by ID
+     * to keep pages stable between requests.
+     *
+     * @param restaurants The visible restaurants, in any order.
+     * @param x           The x coordinate of the user's location.
+     * @param y           The y coordinate of the user's location.
+     * @param k           The maximum number of locations to return.
+     * @return At most k locations, nearest first.
+     */
+    default List<LocationDto> toNearestLocations(List<RestaurantLocation> restaurants, int x, int y, int k) {
+        int size = restaurants.size();
+        if (k <= 0 || size == 0) {
+            return List.of();
+        }
+        double[] distances = new double[size];
+        for (int i = 0; i < size; i++) {
+            distances[i] = calculateDistance(restaurants.get(i).getCoordinates(), x, y);
+        }
+        Comparator<Integer> nearestFirst = Comparator.<Integer>comparingDouble(i -> distances[i])
+                .thenComparing(i -> restaurants.get(i).getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(k, size) + 1, nearestFirst.reversed());
+        for (int i = 0; i < size; i++) {
+            if (heap.size() < k) {
+                heap.add(i);
+            } else if (nearestFirst.compare(i, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        LocationDto[] nearest = new LocationDto[heap.size()];
+        for (int slot = nearest.length - 1; slot >= 0; slot--) {
+            int i = heap.poll();
+            LocationDto location = toLocation(restaurants.get(i), x, y);
+            location.setDistance(distances[i]);
+            nearest[slot] = location;
+        }
+        return List.of(nearest);
+    }
+
+    /**
+     * Selects the k restaurants nearest to the given location from a stream, sorted by distance.
+     * Only the k nearest restaurants seen so far are held, so memory does not grow with the length of the stream;
+     * ties are broken by ID as in {@link #toNearestLocations(List, int, int, int)}.
+     *
+     * @param restaurants The visible restaurants, in any order.
+     * @param x           The x coordinate of the user's location.
+     * @param y           The y coordinate of the user's location.
+     * @param k           The maximum number of locations to return.
+     * @return At most k locations, nearest first.
+     */
+    default List<LocationDto> toNearestLocations(Stream<RestaurantLocation> restaurants, int x, int y, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        Comparator<RestaurantLocation> nearestFirst = Comparator.<RestaurantLocation>comparingDouble(r -> calculateDistance(r.getCoordinates(), x, y))
+                .thenComparing(RestaurantLocation::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+        PriorityQueue<RestaurantLocation> heap = new PriorityQueue<>(nearestFirst.reversed());
+        restaurants.forEach(restaurant -> {
+            if (heap.size() < k) {
+                heap.add(restaurant);
+            } else if (nearestFirst.compare(restaurant, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(restaurant);
+            }
+        });
+        LocationDto[] nearest = new LocationDto[heap.size()];
+        for (int slot = nearest.length - 1; slot >= 0; slot--) {
+            nearest[slot] = toLocation(heap.poll(), x, y);
+        }
+        return List.of(nearest);
+    }
+
+    /**
+     * Converts a list of restaurant locations to a SearchResponseDto.
      *
-     * @param restaurants The list of Restaurant entities.
+     * @param restaurants The visible restaurants, as read by the search path.
      * @param x           The x coordinate of the user's location.
      * @param y           The y coordinate of the user's location.
      * @return A SearchResponseDto containing the user location and a list of LocationDto.
      */
-    default SearchResponseDto toSearchResponse(List<Restaurant> restaurants, int x, int y) {
-        String userLocation = String.format("x=%d,y=%d", x, y);
+    default SearchResponseDto toSearchResponse(List<RestaurantLocation> restaurants, int x, int y) {
+        String userLocation = CoordinatesCodec.format(x, y);
         List<LocationDto> locations = toLocations(restaurants, x, y);
         return new SearchResponseDto(userLocation, locations.isEmpty() ? List.of() : locations);
     }
 
+    /**
+     * Converts one page of the restaurants nearest to the user's location to a SearchResponseDto.
+     *
+     * @param restaurants The visible restaurants, in any order.
+     * @param x           The x coordinate of the user's location.
+     * @param y           The y coordinate of the user's location.
+     * @param limit       The maximum number of locations in the page.
+     * @param offset      The number of nearer locations to skip.
+     * @return A SearchResponseDto with the page and the offset of the next page, if there is one.
+     */
+    default SearchResponseDto toSearchResponse(List<RestaurantLocation> restaurants, int x, int y, int limit, int offset) {
+        String userLocation = CoordinatesCodec.format(x, y);
+        int end = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        List<LocationDto> nearest = toNearestLocations(restaurants, x, y, end);
+        List<LocationDto> page = offset >= nearest.size() ? List.of() : nearest.subList(offset, nearest.size());
+        SearchResponseDto response = new SearchResponseDto(userLocation, page);
+        if (restaurants.size() > end) {
+            response.setNextOffset(end);
+        }
+        return response;
+    }
+
+    /**
+     * Converts the restaurants already selected as nearest to the user's location to one page of a SearchResponseDto.
+     *
+     * @param nearest The nearest visible restaurants, nearest first, with the number of visible restaurants.
+     * @param x       The x coordinate of the user's location.
+     * @param y       The y coordinate of the user's location.
+     * @param offset  The number of nearer locations to skip.
+     * @return A SearchResponseDto with the page and the offset of the next page, if there is one.
+     */
+    default SearchResponseDto toSearchResponse(NearestRestaurants nearest, int x, int y, int offset) {
+        String userLocation = CoordinatesCodec.format(x, y);
+        List<RestaurantLocation> restaurants = nearest.getRestaurants();
+        List<LocationDto> page = offset >= restaurants.size() ? List.of()
+                : restaurants.subList(offset, restaurants.size()).stream().map(r -> toLocation(r, x, y)).toList();
+        SearchResponseDto response = new SearchResponseDto(userLocation, page);
+        if (nearest.getVisibleCount() > restaurants.size()) {
+            response.setNextOffset(restaurants.size());
+        }
+        return response;
+    }
+
     @Named("formatCoordinates")
     default String formatCoordinates(Coordinates coords) {
-        return coords != null
-                ? String.format("x=%d,y=%d", coords.getX(), coords.getY())
-                : "x=0,y=0";
+        return CoordinatesCodec.format(coords);
     }
 
     @Named("stringToUUID")
@@ -0,0 +1,119 @@
+package com.sample.restaurant.search.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the search pipeline.
+ * Every stage of a search is timed under {@code restaurant.search.stage} with a {@code stage} tag, so that a slow
+ * search can be attributed to the cache, MongoDB, the visibility filter, the mapping and sort or the serialization.
+ * The number of candidates scanned and of results returned are recorded per query under
+ * {@code restaurant.search.candidates} and {@code restaurant.search.results}. All of them publish histograms,
+ * which the Prometheus endpoint exposes as buckets.
+ */
+@Component
+public class SearchMetrics {
+
+    /**
+     * Stages of a search.
+     */
+    public enum Stage {
+        /**
+         * Looking the search up in the search cache, including waiting for a concurrent computation of the same key.
+         */
+        CACHE_LOOKUP("cache_lookup"),
+        /**
+         * Reading candidates from MongoDB.
+         */
+        REPOSITORY("repository"),
+        /**
+         * Applying the visibility test to the candidates.
+         */
+        FILTER("filter"),
+        /**
+         * Mapping the visible restaurants to the response and sorting them.
+         */
+        MAPPING("mapping"),
+        /**
+         * Writing the response as JSON.
+         */
+        SERIALIZATION("serialization");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final DistributionSummary candidates;
+    private final DistributionSummary results;
+
+    public SearchMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, stageTimer(meterRegistry, stage));
+        }
+        this.candidates = DistributionSummary.builder("restaurant.search.candidates")
+                .description("Candidate restaurants scanned per search")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.results = DistributionSummary.builder("restaurant.search.results")
+                .description("Restaurants returned per search")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the timer of a stage, for components that time a stage on their own.
+     *
+     * @param meterRegistry the registry
+     * @param stage         the stage
+     * @return the timer, registered on first use
+     */
+    public static Timer stageTimer(MeterRegistry meterRegistry, Stage stage) {
+        return Timer.builder("restaurant.search.stage")
+                .description("Time spent in each stage of a search")
+                .tag("stage", stage.getTag())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the work and records its duration under the given stage.
+     */
+    public <T> T time(Stage stage, Supplier<T> work) {
+        long started = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, System.nanoTime() - started);
+        }
+    }
+
+    public void record(Stage stage, long nanos) {
+        timers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the outcome of one search.
+     *
+     * @param candidatesScanned the number of restaurants the visibility test was applied to
+     * @param resultsReturned   the number of restaurants returned
+     */
+    public void recordQuery(int candidatesScanned, int resultsReturned) {
+        candidates.record(candidatesScanned);
+        results.record(resultsReturned);
+    }
+}
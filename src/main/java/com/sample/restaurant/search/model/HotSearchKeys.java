@@ -0,0 +1,59 @@
+package com.sample.restaurant.search.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The most requested search locations, saved periodically so that newly started instances can replay them into
+ * their search cache before accepting traffic. All instances share one snapshot; the last one saved wins.
+ */
+@Document(collection = "search_hot_keys")
+public class HotSearchKeys {
+
+    public static final String SEARCH = "search";
+
+    @Id
+    private String id;
+    private List<Coordinates> locations;
+    private Instant savedAt;
+
+    public HotSearchKeys() {
+        // Default constructor for MongoDB
+    }
+
+    public HotSearchKeys(String id, List<Coordinates> locations, Instant savedAt) {
+        this.id = id;
+        this.locations = locations;
+        this.savedAt = savedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the saved locations, hottest first
+     */
+    public List<Coordinates> getLocations() {
+        return locations;
+    }
+
+    public void setLocations(List<Coordinates> locations) {
+        this.locations = locations;
+    }
+
+    public Instant getSavedAt() {
+        return savedAt;
+    }
+
+    public void setSavedAt(Instant savedAt) {
+        this.savedAt = savedAt;
+    }
+}
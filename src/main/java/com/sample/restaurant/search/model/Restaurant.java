@@ -3,13 +3,19 @@ package com.sample.restaurant.search.model;
 
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 /**
  * Represents a restaurant entity in the system.
  * This class is used to define the properties of a restaurant.
+ * The bounding box of the visibility disc is indexed so that searches can be prefiltered in MongoDB.
  */
 @Document(collection = "restaurants")
+@CompoundIndex(name = "visibility_bounds", def = "{'bounds.minX': 1, 'bounds.maxX': 1, 'bounds.minY': 1, 'bounds.maxY': 1}")
 public class Restaurant {
     @Id
     private String id;
@@ -19,6 +25,9 @@ public class Restaurant {
     private String image;
     private int radius;
     private Coordinates coordinates;
+    private VisibilityBounds bounds;
+    @Indexed(name = "updated_at")
+    private Instant updatedAt;
 
     public Restaurant() {
         // Default constructor for MongoDB
@@ -80,6 +89,25 @@ public class Restaurant {
         this.coordinates = coordinates;
     }
 
+    /**
+     * @return when the restaurant was last written, used to catch up on changes newer than an index snapshot
+     */
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public VisibilityBounds getBounds() {
+        return bounds;
+    }
+
+    public void setBounds(VisibilityBounds bounds) {
+        this.bounds = bounds;
+    }
+
     public String getId() {
         return id;
     }
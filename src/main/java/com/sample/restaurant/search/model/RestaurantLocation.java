@@ -0,0 +1,78 @@
+package com.sample.restaurant.search.model;
+
+import org.springframework.data.annotation.Id;
+
+/**
+ * Lean read model of a restaurant used by the search path.
+ * Holds only what a search needs to test visibility and build a LocationDto, so search queries fetch these four
+ * fields from the restaurants collection instead of whole Restaurant documents.
+ */
+public class RestaurantLocation {
+
+    /**
+     * Fields of the restaurants collection read into this model.
+     */
+    public static final String[] FIELDS = {"_id", "name", "coordinates", "radius"};
+
+    @Id
+    private String id;
+    private String name;
+    private Coordinates coordinates;
+    private int radius;
+
+    public RestaurantLocation() {
+        // Default constructor for MongoDB
+    }
+
+    public RestaurantLocation(String id, String name, Coordinates coordinates, int radius) {
+        this.id = id;
+        this.name = name;
+        this.coordinates = coordinates;
+        this.radius = radius;
+    }
+
+    /**
+     * Creates the search view of a full restaurant.
+     *
+     * @param restaurant the restaurant, may be null
+     * @return the location of the restaurant, or null if the restaurant is null
+     */
+    public static RestaurantLocation of(Restaurant restaurant) {
+        if (restaurant == null) {
+            return null;
+        }
+        return new RestaurantLocation(restaurant.getId(), restaurant.getName(), restaurant.getCoordinates(), restaurant.getRadius());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Coordinates getCoordinates() {
+        return coordinates;
+    }
+
+    public void setCoordinates(Coordinates coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public void setRadius(int radius) {
+        this.radius = radius;
+    }
+}
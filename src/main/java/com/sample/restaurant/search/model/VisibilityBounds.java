@@ -0,0 +1,73 @@
+package com.sample.restaurant.search.model;
+
+/**
+ * Axis-aligned bounding box of a restaurant's visibility disc.
+ * It is stored with the restaurant so that MongoDB can prefilter candidates with an indexed range query.
+ */
+public class VisibilityBounds {
+    private int minX;
+    private int maxX;
+    private int minY;
+    private int maxY;
+
+    public VisibilityBounds() {
+        // Default constructor for MongoDB
+    }
+
+    public VisibilityBounds(int minX, int maxX, int minY, int maxY) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Computes the bounds of the disc centred at the given coordinates.
+     * Near the ends of the int range the disc extends past it, so its bounds are clamped to it.
+     *
+     * @param coordinates the centre of the disc
+     * @param radius      the visibility radius
+     * @return the bounding box of the disc
+     */
+    public static VisibilityBounds of(Coordinates coordinates, int radius) {
+        long x = coordinates.getX();
+        long y = coordinates.getY();
+        return new VisibilityBounds(clamp(x - radius), clamp(x + radius), clamp(y - radius), clamp(y + radius));
+    }
+
+    private static int clamp(long coordinate) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, coordinate));
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public void setMinX(int minX) {
+        this.minX = minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public void setMaxX(int maxX) {
+        this.maxX = maxX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public void setMinY(int minY) {
+        this.minY = minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public void setMaxY(int maxY) {
+        this.maxY = maxY;
+    }
+}
@@ -0,0 +1,12 @@
+package com.sample.restaurant.search.repository;
+
+import com.sample.restaurant.search.model.HotSearchKeys;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the saved hot search locations replayed by the cache warmer.
+ */
+@Repository
+public interface HotSearchKeysRepository extends MongoRepository<HotSearchKeys, String> {
+}
@@ -0,0 +1,116 @@
+package com.sample.restaurant.search.repository;
+
+import com.sample.restaurant.search.exception.RepositoryBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * Bulkhead around repository access.
+ * Every repository call takes a permit from a fair semaphore for as long as it talks to MongoDB, so no more than
+ * the configured number of calls compete for pooled connections at once. This matters with virtual threads, where
+ * the number of concurrent requests is no longer capped by the Tomcat thread pool. Calls wait at most the
+ * configured time for a permit and then fail with {@link RepositoryBusyException}. Streams returned by a
+ * repository keep their permit until they are closed, as they hold a cursor open while their records are written
+ * to a client. They take it from a small pool of their own, so slow clients of streamed responses cannot starve
+ * the other repository calls.
+ */
+@Component
+public class RepositoryBulkhead implements MethodInterceptor {
+
+    private final Semaphore permits;
+    private final Semaphore streamPermits;
+    private final int maxConcurrentCalls;
+    private final int maxConcurrentStreams;
+    private final Duration maxWait;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public RepositoryBulkhead(MeterRegistry meterRegistry,
+                              @Value("${restaurant.mongo.bulkhead.max-concurrent-calls:90}") int maxConcurrentCalls,
+                              @Value("${restaurant.mongo.bulkhead.max-concurrent-streams:10}") int maxConcurrentStreams,
+                              @Value("${restaurant.mongo.bulkhead.max-wait:2s}") Duration maxWait) {
+        if (maxConcurrentCalls < 1 || maxConcurrentStreams < 1) {
+            throw new IllegalArgumentException("Max concurrent calls and streams must be at least 1");
+        }
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.streamPermits = new Semaphore(maxConcurrentStreams, true);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.maxWait = maxWait;
+        this.waitTimer = Timer.builder("restaurant.mongo.bulkhead.wait")
+                .description("Time repository calls waited for a bulkhead permit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("restaurant.mongo.bulkhead.rejected")
+                .description("Repository calls rejected after waiting the maximum time for a permit")
+                .register(meterRegistry);
+        Gauge.builder("restaurant.mongo.bulkhead.limit", this, b -> b.maxConcurrentCalls)
+                .description("Maximum number of concurrent repository calls")
+                .register(meterRegistry);
+        Gauge.builder("restaurant.mongo.bulkhead.active", this, RepositoryBulkhead::activeCalls)
+                .description("Repository calls currently holding a permit")
+                .register(meterRegistry);
+        Gauge.builder("restaurant.mongo.bulkhead.queued", permits, Semaphore::getQueueLength)
+                .description("Repository calls waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("restaurant.mongo.bulkhead.streams.active", this, RepositoryBulkhead::activeStreams)
+                .description("Repository streams currently holding a cursor open")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Semaphore pool = BaseStream.class.isAssignableFrom(invocation.getMethod().getReturnType())
+                ? streamPermits : permits;
+        acquire(pool, invocation);
+        boolean handedOver = false;
+        try {
+            Object result = invocation.proceed();
+            if (result instanceof BaseStream<?, ?> stream) {
+                stream.onClose(pool::release);
+                handedOver = true;
+            }
+            return result;
+        } finally {
+            if (!handedOver) {
+                pool.release();
+            }
+        }
+    }
+
+    public int activeCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public int activeStreams() {
+        return maxConcurrentStreams - streamPermits.availablePermits();
+    }
+
+    private void acquire(Semaphore pool, MethodInvocation invocation) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = pool.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryBusyException("Interrupted while waiting for database access");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new RepositoryBusyException("No database access within " + maxWait.toMillis() + " ms for "
+                    + invocation.getMethod().getName());
+        }
+    }
+}
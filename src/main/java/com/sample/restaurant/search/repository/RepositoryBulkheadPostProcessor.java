@@ -0,0 +1,28 @@
+package com.sample.restaurant.search.repository;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds the {@link RepositoryBulkhead} to the proxy of every Spring Data repository when it is created.
+ * The bulkhead is looked up only then, so this post processor can be registered early without pulling the
+ * meter registry along.
+ */
+public class RepositoryBulkheadPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<RepositoryBulkhead> bulkhead;
+
+    public RepositoryBulkheadPostProcessor(ObjectProvider<RepositoryBulkhead> bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(bulkhead.getObject())));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sample.restaurant.search.repository;
+
+import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.VisibilityBounds;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the stored visibility bounds in sync with the coordinates and radius of a restaurant on every save.
+ */
+@Component
+public class RestaurantBoundsCallback implements BeforeConvertCallback<Restaurant> {
+
+    @Override
+    public Restaurant onBeforeConvert(Restaurant restaurant, String collection) {
+        if (restaurant.getCoordinates() != null) {
+            restaurant.setBounds(VisibilityBounds.of(restaurant.getCoordinates(), restaurant.getRadius()));
+        }
+        return restaurant;
+    }
+}
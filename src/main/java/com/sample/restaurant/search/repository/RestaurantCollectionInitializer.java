@@ -0,0 +1,35 @@
+package com.sample.restaurant.search.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepares the restaurants collection for search queries at startup.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RestaurantCollectionInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantCollectionInitializer.class);
+
+    private final RestaurantRepository restaurantRepository;
+
+    public RestaurantCollectionInitializer(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            restaurantRepository.ensureSearchIndexes();
+        } catch (DataAccessException e) {
+            logger.warn("Could not prepare search indexes on the restaurants collection: {}", e.getMessage());
+        }
+    }
+}
@@ -6,8 +6,9 @@ import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for managing Restaurant entities in MongoDB.
- * This interface extends MongoRepository to provide CRUD operations for Restaurant objects.
+ * This interface extends MongoRepository to provide CRUD operations for Restaurant objects,
+ * and RestaurantRepositoryCustom for the geometric search queries.
  */
 @Repository
-public interface RestaurantRepository extends MongoRepository<Restaurant, String> {
+public interface RestaurantRepository extends MongoRepository<Restaurant, String>, RestaurantRepositoryCustom {
 }
\ No newline at end of file
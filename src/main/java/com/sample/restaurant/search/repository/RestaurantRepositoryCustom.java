@@ -0,0 +1,78 @@
+package com.sample.restaurant.search.repository;
+
+import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Custom query operations for Restaurant entities that are not expressible as derived queries.
+ */
+public interface RestaurantRepositoryCustom {
+
+    /**
+     * Finds restaurants whose visibility bounding box intersects the given rectangle (bounds inclusive).
+     * The result is a superset of the restaurants visible from inside the rectangle; callers still apply
+     * the exact distance check. Only the fields of the lean {@link RestaurantLocation} read model are fetched.
+     *
+     * @param minX the smallest x-coordinate of the rectangle
+     * @param maxX the largest x-coordinate of the rectangle
+     * @param minY the smallest y-coordinate of the rectangle
+     * @param maxY the largest y-coordinate of the rectangle
+     * @return candidate restaurants for the rectangle
+     */
+    List<RestaurantLocation> findIntersecting(int minX, int maxX, int minY, int maxY);
+
+    /**
+     * Same as {@link #findIntersecting(int, int, int, int)}, but reads the candidates lazily from a cursor.
+     * The stream holds the cursor open and must be closed by the caller.
+     *
+     * @param minX the smallest x-coordinate of the rectangle
+     * @param maxX the largest x-coordinate of the rectangle
+     * @param minY the smallest y-coordinate of the rectangle
+     * @param maxY the largest y-coordinate of the rectangle
+     * @return candidate restaurants for the rectangle
+     */
+    Stream<RestaurantLocation> streamIntersecting(int minX, int maxX, int minY, int maxY);
+
+    /**
+     * Reads the location of every restaurant, fetching only the fields of {@link RestaurantLocation}.
+     *
+     * @return the locations of all restaurants
+     */
+    List<RestaurantLocation> findAllLocations();
+
+    /**
+     * Reads the locations of the given restaurants, fetching only the fields of {@link RestaurantLocation}.
+     *
+     * @param ids the IDs of the restaurants
+     * @return the locations of the restaurants that exist, in no particular order
+     */
+    List<RestaurantLocation> findLocationsById(Collection<String> ids);
+
+    /**
+     * Reads the locations of the restaurants written at or after the given time, fetching only the fields of
+     * {@link RestaurantLocation}. Restaurants stored without a write time are not returned.
+     *
+     * @param since the earliest write time
+     * @return the locations of the restaurants written since then, in no particular order
+     */
+    List<RestaurantLocation> findLocationsUpdatedSince(Instant since);
+
+    /**
+     * Inserts or replaces the given restaurants, matched by ID, with one unordered bulk write.
+     *
+     * @param restaurants the restaurants to write
+     * @return the number of restaurants inserted or replaced
+     */
+    int bulkUpsert(List<Restaurant> restaurants);
+
+    /**
+     * Creates the indexes declared on Restaurant and fills in the visibility bounds of documents
+     * that were stored without them (e.g. imported directly into MongoDB).
+     */
+    void ensureSearchIndexes();
+}
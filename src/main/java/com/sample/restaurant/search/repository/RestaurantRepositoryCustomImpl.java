@@ -0,0 +1,123 @@
+package com.sample.restaurant.search.repository;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.bulk.BulkWriteResult;
+import com.sample.restaurant.search.config.MongoClientProperties;
+import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * MongoTemplate based implementation of {@link RestaurantRepositoryCustom}.
+ */
+public class RestaurantRepositoryCustomImpl implements RestaurantRepositoryCustom {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantRepositoryCustomImpl.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadPreference searchReadPreference;
+
+    public RestaurantRepositoryCustomImpl(MongoTemplate mongoTemplate, MongoClientProperties clientProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.searchReadPreference = clientProperties.getSearchReadPreference() != null
+                ? ReadPreference.valueOf(clientProperties.getSearchReadPreference())
+                : null;
+    }
+
+    @Override
+    public List<RestaurantLocation> findIntersecting(int minX, int maxX, int minY, int maxY) {
+        return mongoTemplate.find(intersecting(minX, maxX, minY, maxY), RestaurantLocation.class, collectionName());
+    }
+
+    @Override
+    public Stream<RestaurantLocation> streamIntersecting(int minX, int maxX, int minY, int maxY) {
+        return mongoTemplate.stream(intersecting(minX, maxX, minY, maxY), RestaurantLocation.class, collectionName());
+    }
+
+    @Override
+    public List<RestaurantLocation> findAllLocations() {
+        return mongoTemplate.find(lean(new Query()), RestaurantLocation.class, collectionName());
+    }
+
+    @Override
+    public List<RestaurantLocation> findLocationsById(Collection<String> ids) {
+        return mongoTemplate.find(lean(new Query(where("_id").in(ids))), RestaurantLocation.class, collectionName());
+    }
+
+    @Override
+    public List<RestaurantLocation> findLocationsUpdatedSince(Instant since) {
+        return mongoTemplate.find(lean(new Query(where("updatedAt").gte(since))), RestaurantLocation.class, collectionName());
+    }
+
+    @Override
+    public int bulkUpsert(List<Restaurant> restaurants) {
+        if (restaurants.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Restaurant.class);
+        for (Restaurant restaurant : restaurants) {
+            bulk.replaceOne(new Query(where("_id").is(restaurant.getId())), restaurant, FindAndReplaceOptions.options().upsert());
+        }
+        BulkWriteResult result = bulk.execute();
+        return result.getMatchedCount() + result.getUpserts().size();
+    }
+
+    @Override
+    public void ensureSearchIndexes() {
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+                mongoTemplate.getConverter().getMappingContext();
+        IndexOperations indexOps = mongoTemplate.indexOps(Restaurant.class);
+        IndexResolver.create(mappingContext).resolveIndexFor(Restaurant.class).forEach(indexOps::createIndex);
+
+        AggregationUpdate computeBounds = AggregationUpdate.update()
+                .set("bounds.minX").toValue(ArithmeticOperators.valueOf("coordinates.x").subtract("radius"))
+                .set("bounds.maxX").toValue(ArithmeticOperators.valueOf("coordinates.x").add("radius"))
+                .set("bounds.minY").toValue(ArithmeticOperators.valueOf("coordinates.y").subtract("radius"))
+                .set("bounds.maxY").toValue(ArithmeticOperators.valueOf("coordinates.y").add("radius"));
+        long updated = mongoTemplate.updateMulti(
+                new Query(where("bounds").exists(false).and("coordinates.x").exists(true)),
+                computeBounds, Restaurant.class).getModifiedCount();
+        if (updated > 0) {
+            logger.info("Computed visibility bounds for {} restaurants", updated);
+        }
+    }
+
+    private Query intersecting(int minX, int maxX, int minY, int maxY) {
+        Query query = new Query(where("bounds.minX").lte(maxX)
+                .and("bounds.maxX").gte(minX)
+                .and("bounds.minY").lte(maxY)
+                .and("bounds.maxY").gte(minY));
+        if (searchReadPreference != null) {
+            query.withReadPreference(searchReadPreference);
+        }
+        return lean(query);
+    }
+
+    private static Query lean(Query query) {
+        query.fields().include(RestaurantLocation.FIELDS);
+        return query;
+    }
+
+    private String collectionName() {
+        return mongoTemplate.getCollectionName(Restaurant.class);
+    }
+}
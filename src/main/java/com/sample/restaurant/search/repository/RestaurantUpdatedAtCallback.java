@@ -0,0 +1,23 @@
+package com.sample.restaurant.search.repository;
+
+import com.sample.restaurant.search.model.Restaurant;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Stamps a restaurant with the time of every save, single or bulk, so that an index restored from a snapshot can
+ * catch up on the restaurants written after it. The stamp is truncated to the millisecond precision of a BSON date,
+ * so the instance that saved a restaurant derives the same details ETag as one reading it back.
+ */
+@Component
+public class RestaurantUpdatedAtCallback implements BeforeConvertCallback<Restaurant> {
+
+    @Override
+    public Restaurant onBeforeConvert(Restaurant restaurant, String collection) {
+        restaurant.setUpdatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        return restaurant;
+    }
+}
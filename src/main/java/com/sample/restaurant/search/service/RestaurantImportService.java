@@ -0,0 +1,11 @@
+package com.sample.restaurant.search.service;
+
+import com.sample.restaurant.search.dto.BulkImportResponseDto;
+
+import java.io.InputStream;
+
+
+public interface RestaurantImportService {
+
+    BulkImportResponseDto importRestaurants(InputStream json);
+}
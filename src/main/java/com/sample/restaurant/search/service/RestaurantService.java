@@ -1,13 +1,22 @@
 package com.sample.restaurant.search.service;
 
+import com.sample.restaurant.search.dto.LocationDto;
 import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
 import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.model.Coordinates;
 import jakarta.validation.Valid;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 
 public interface RestaurantService {
 
     SearchResponseDto restaurantLocator(int x, int y);
+    SearchResponseDto restaurantLocator(int x, int y, int limit, int offset);
+    void streamRestaurantLocator(int x, int y, Consumer<LocationDto> sink);
+    void streamRestaurantLocator(int x, int y, int limit, int offset, Consumer<LocationDto> sink);
+    List<SearchResponseDto> restaurantLocatorBatch(List<Coordinates> locations);
     RestaurantDetailsResponseDto findRestaurantById(String id);
     RestaurantDetailsResponseDto addOrUpdateRestaurant(String id, @Valid RestaurantDetailsResponseDto restaurantDto);
 }
@@ -0,0 +1,178 @@
+package com.sample.restaurant.search.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.restaurant.search.cache.SearchCacheInvalidator;
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.dto.BulkImportResponseDto;
+import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
+import com.sample.restaurant.search.exception.InvalidInputException;
+import com.sample.restaurant.search.index.SpatialGridIndex;
+import com.sample.restaurant.search.mapper.RequestMapper;
+import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import com.sample.restaurant.search.service.RestaurantImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of RestaurantImportService streaming restaurants from a JSON document into MongoDB.
+ * Restaurants are read one at a time, validated and written with unordered bulk upserts of a configurable size,
+ * so memory use does not depend on the size of the import. The in-memory index and the caches are updated once
+ * per written batch.
+ */
+@Service
+public class RestaurantImportServiceImpl implements RestaurantImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantImportServiceImpl.class);
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final RestaurantRepository restaurantRepository;
+    private final RequestMapper requestMapper;
+    private final SpatialGridIndex spatialIndex;
+    private final SearchCacheInvalidator searchCacheInvalidator;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    public RestaurantImportServiceImpl(RestaurantRepository restaurantRepository, RequestMapper requestMapper,
+                                       SpatialGridIndex spatialIndex, SearchCacheInvalidator searchCacheInvalidator,
+                                       CacheManager cacheManager, ObjectMapper objectMapper, Validator validator,
+                                       @Value("${restaurant.import.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.restaurantRepository = restaurantRepository;
+        this.requestMapper = requestMapper;
+        this.spatialIndex = spatialIndex;
+        this.searchCacheInvalidator = searchCacheInvalidator;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports restaurants from a JSON array of restaurant details, or from an object holding such an array under
+     * "locations" (the shape of locations.json). Restaurants failing validation are skipped and reported.
+     *
+     * @param json the JSON document
+     * @return a summary of the import
+     * @throws InvalidInputException if the document is not valid JSON of the expected shape
+     */
+    @Override
+    public BulkImportResponseDto importRestaurants(InputStream json) {
+        long received = 0;
+        long imported = 0;
+        int batches = 0;
+        List<String> errors = new ArrayList<>();
+        long rejected = 0;
+        Map<String, Restaurant> batch = new LinkedHashMap<>();
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            moveToLocations(parser);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                RestaurantDetailsResponseDto dto = objectMapper.readValue(parser, RestaurantDetailsResponseDto.class);
+                Set<ConstraintViolation<RestaurantDetailsResponseDto>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(describe(received, violations));
+                    }
+                } else {
+                    Restaurant restaurant = requestMapper.toEntity(dto);
+                    // A later entry for the same ID replaces an earlier one, as sequential updates would
+                    batch.remove(restaurant.getId());
+                    batch.put(restaurant.getId(), restaurant);
+                }
+                received++;
+                if (batch.size() >= batchSize) {
+                    imported += flush(batch);
+                    batches++;
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new InvalidInputException("restaurants must be JSON objects");
+            }
+        } catch (JsonProcessingException e) {
+            // Batches written so far stay imported; the restaurants of the current batch are dropped
+            throw new InvalidInputException("Malformed import document: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            imported += flush(batch);
+            batches++;
+        }
+        logger.info("Imported {} of {} restaurants in {} batches, {} rejected", imported, received, batches, rejected);
+        return new BulkImportResponseDto(received, imported, rejected, batches, errors);
+    }
+
+    private void moveToLocations(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                token = parser.nextToken();
+                if ("locations".equals(field)) {
+                    break;
+                }
+                parser.skipChildren();
+                token = null;
+            }
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new InvalidInputException("expected an array of restaurants or an object with a \"locations\" array");
+        }
+    }
+
+    private int flush(Map<String, Restaurant> batch) {
+        List<Restaurant> restaurants = List.copyOf(batch.values());
+        List<RestaurantLocation> previous = new ArrayList<>();
+        if (spatialIndex.isLoaded()) {
+            restaurants.forEach(r -> spatialIndex.get(r.getId()).ifPresent(previous::add));
+        } else {
+            previous.addAll(restaurantRepository.findLocationsById(batch.keySet()));
+        }
+        batch.clear();
+
+        int written = restaurantRepository.bulkUpsert(restaurants);
+
+        List<RestaurantLocation> locations = restaurants.stream().map(RestaurantLocation::of).toList();
+        locations.forEach(spatialIndex::upsert);
+        searchCacheInvalidator.evictVisibleFromAll(previous);
+        searchCacheInvalidator.evictVisibleFromAll(locations);
+        Cache details = cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE);
+        if (details != null) {
+            restaurants.forEach(r -> details.evict(r.getId()));
+        }
+        logger.debug("Wrote batch of {} restaurants", restaurants.size());
+        return written;
+    }
+
+    private static String describe(long position, Set<ConstraintViolation<RestaurantDetailsResponseDto>> violations) {
+        StringBuilder message = new StringBuilder("restaurant ").append(position).append(':');
+        for (ConstraintViolation<RestaurantDetailsResponseDto> violation : violations) {
+            message.append(' ').append(violation.getPropertyPath()).append(' ').append(violation.getMessage()).append(';');
+        }
+        return message.toString();
+    }
+}
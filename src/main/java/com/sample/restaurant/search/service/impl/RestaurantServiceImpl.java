@@ -1,22 +1,41 @@
 package com.sample.restaurant.search.service.impl;
 
+import com.sample.restaurant.search.cache.SearchCacheInvalidator;
+import com.sample.restaurant.search.cache.SearchKey;
+import com.sample.restaurant.search.cache.SearchKeyRegistry;
+import com.sample.restaurant.search.cache.TileCandidateCache;
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.dto.LocationDto;
 import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
 import com.sample.restaurant.search.dto.SearchResponseDto;
 import com.sample.restaurant.search.exception.InvalidInputException;
 import com.sample.restaurant.search.exception.RestaurantNotFoundException;
+import com.sample.restaurant.search.index.GeometryBlock;
+import com.sample.restaurant.search.index.NearestRestaurants;
+import com.sample.restaurant.search.index.SpatialGridIndex;
+import com.sample.restaurant.search.logging.LogMarkers;
 import com.sample.restaurant.search.mapper.RequestMapper;
 import com.sample.restaurant.search.mapper.ResponseMapper;
-import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.metrics.SearchMetrics;
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
 import com.sample.restaurant.search.repository.RestaurantRepository;
 import com.sample.restaurant.search.service.RestaurantService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation of RestaurantService providing restaurant location search and CRUD operations.
@@ -29,48 +48,180 @@ public class RestaurantServiceImpl implements RestaurantService {
     private final RestaurantRepository restaurantRepository;
     private final ResponseMapper responseMapper;
     private final RequestMapper requestMapper;
+    private final SpatialGridIndex spatialIndex;
+    private final SearchKeyRegistry searchKeyRegistry;
+    private final SearchCacheInvalidator searchCacheInvalidator;
+    private final TileCandidateCache tileCandidateCache;
+    private final CacheManager cacheManager;
+    private final SearchMetrics searchMetrics;
 
-
-    public RestaurantServiceImpl(RestaurantRepository restaurantRepository, ResponseMapper mapper, RequestMapper requestMapper) {
+    public RestaurantServiceImpl(RestaurantRepository restaurantRepository, ResponseMapper mapper, RequestMapper requestMapper,
+                                 SpatialGridIndex spatialIndex, SearchKeyRegistry searchKeyRegistry,
+                                 SearchCacheInvalidator searchCacheInvalidator, TileCandidateCache tileCandidateCache,
+                                 CacheManager cacheManager, SearchMetrics searchMetrics) {
         this.restaurantRepository = restaurantRepository;
         this.responseMapper = mapper;
         this.requestMapper = requestMapper;
+        this.spatialIndex = spatialIndex;
+        this.searchKeyRegistry = searchKeyRegistry;
+        this.searchCacheInvalidator = searchCacheInvalidator;
+        this.tileCandidateCache = tileCandidateCache;
+        this.cacheManager = cacheManager;
+        this.searchMetrics = searchMetrics;
     }
 
     /**
      * Searches for restaurants near the specified coordinates.
-     * The method caches the results to improve performance on subsequent requests.
+     * The method caches the results to improve performance on subsequent requests; concurrent misses for the same
+     * location share a single computation.
+     * Candidates come from the in-memory spatial index. While the index is not loaded they are the restaurants
+     * intersecting the grid tile of the location, prefiltered in MongoDB and cached per tile, and the exact
+     * distance check is applied here.
+     * The cache is used directly rather than through {@code @Cacheable} so that the lookup can be timed apart from
+     * the computation.
      *
      * @param x the x-coordinate
      * @param y the y-coordinate
      * @return a SearchResponseDto containing the list of nearby restaurants
      */
-    @Cacheable(value = "restaurantSearchCache", key = "T(java.lang.String).format('x=%d,y=%d', #x, #y)")
     @Override
     public SearchResponseDto restaurantLocator(int x, int y) {
-        logger.debug("Searching for restaurants near coordinates: x={}, y={}", x, y);
-        var restaurants = restaurantRepository.findAll().stream()
-                .filter(restaurant -> isRestaurantNearby(restaurant, x, y))
-                .toList();
-        return responseMapper.toSearchResponse(restaurants, x, y);
+        return lookup(new SearchKey(x, y));
+    }
+
+    /**
+     * Searches for the restaurants nearest to the specified coordinates, one page at a time.
+     * Only offset + limit restaurants are ordered, so dense areas stay cheap. With the index loaded, the nearest
+     * restaurants are selected while the index is scanned. Pages are cached like whole results, so a conditional
+     * request for an unchanged page neither orders nor encodes it again; they are evicted with the other results
+     * of their location.
+     *
+     * @param x      the x-coordinate
+     * @param y      the y-coordinate
+     * @param limit  the maximum number of restaurants to return
+     * @param offset the number of nearer restaurants to skip
+     * @return a SearchResponseDto containing one page of nearby restaurants
+     */
+    @Override
+    public SearchResponseDto restaurantLocator(int x, int y, int limit, int offset) {
+        return lookup(new SearchKey(x, y, limit, offset));
+    }
+
+    private SearchResponseDto lookup(SearchKey key) {
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        if (cache == null) {
+            return search(key);
+        }
+        long started = System.nanoTime();
+        long[] computing = new long[1];
+        try {
+            return load(cache, key, computing);
+        } finally {
+            searchMetrics.record(SearchMetrics.Stage.CACHE_LOOKUP, System.nanoTime() - started - computing[0]);
+        }
+    }
+
+    /**
+     * Streams the restaurants near the specified coordinates to the sink as they are found, in no particular order.
+     * Nothing is cached. Candidates come from the spatial index, without collecting them first. While the index is
+     * not loaded they are read from a MongoDB cursor and written as the cursor is iterated, so memory stays flat
+     * however many restaurants are visible. The cursor holds one of the repository bulkhead's stream permits until
+     * it is closed, so a slow client holds a permit while its response is written but never starves other calls.
+     *
+     * @param x    the x-coordinate
+     * @param y    the y-coordinate
+     * @param sink receives each nearby restaurant
+     */
+    @Override
+    public void streamRestaurantLocator(int x, int y, Consumer<LocationDto> sink) {
+        logger.info(LogMarkers.SAMPLED, "Streaming restaurants near coordinates: x={}, y={}", x, y);
+        if (spatialIndex.isLoaded()) {
+            spatialIndex.forEachVisible(x, y, restaurant -> sink.accept(responseMapper.toLocation(restaurant, x, y)));
+            return;
+        }
+        try (Stream<RestaurantLocation> candidates = streamVisibleFromRepository(x, y)) {
+            candidates.forEach(restaurant -> sink.accept(responseMapper.toLocation(restaurant, x, y)));
+        }
+    }
+
+    /**
+     * Streams the restaurants nearest to the specified coordinates to the sink, nearest first.
+     * Only offset + limit restaurants are held while the candidates are read.
+     *
+     * @param x      the x-coordinate
+     * @param y      the y-coordinate
+     * @param limit  the maximum number of restaurants to stream
+     * @param offset the number of nearer restaurants to skip
+     * @param sink   receives each nearby restaurant
+     */
+    @Override
+    public void streamRestaurantLocator(int x, int y, int limit, int offset, Consumer<LocationDto> sink) {
+        logger.info(LogMarkers.SAMPLED, "Streaming {} restaurants from offset {} near coordinates: x={}, y={}",
+                limit, offset, x, y);
+        int end = end(limit, offset);
+        if (spatialIndex.isLoaded()) {
+            spatialIndex.nearest(x, y, end).getRestaurants().stream().skip(offset)
+                    .forEach(restaurant -> sink.accept(responseMapper.toLocation(restaurant, x, y)));
+            return;
+        }
+        List<LocationDto> nearest;
+        try (Stream<RestaurantLocation> candidates = streamVisibleFromRepository(x, y)) {
+            nearest = responseMapper.toNearestLocations(candidates, x, y, end);
+        }
+        nearest.stream().skip(offset).forEach(sink);
+    }
 
+    /**
+     * Searches for restaurants near each of the given locations.
+     * All locations are first looked up in the search cache in one pass; the misses are computed once per distinct
+     * location, sharing the index or the cached tile candidates between locations that are close to each other.
+     * Each miss is loaded through the cache as in {@link #restaurantLocator(int, int)}, so it is shared with
+     * concurrent searches of the same location, and a result evicted by a write during the load is not cached.
+     *
+     * @param locations the user locations
+     * @return one SearchResponseDto per location, in the same order
+     */
+    @Override
+    public List<SearchResponseDto> restaurantLocatorBatch(List<Coordinates> locations) {
+        logger.info(LogMarkers.SAMPLED, "Searching for restaurants near {} locations", locations.size());
+        Cache cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        SearchResponseDto[] responses = new SearchResponseDto[locations.size()];
+        Map<SearchKey, List<Integer>> misses = new LinkedHashMap<>();
+        long lookupStarted = System.nanoTime();
+        for (int i = 0; i < responses.length; i++) {
+            SearchKey key = new SearchKey(locations.get(i).getX(), locations.get(i).getY());
+            SearchResponseDto cached = cache != null ? cache.get(key, SearchResponseDto.class) : null;
+            if (cached != null) {
+                responses[i] = cached;
+            } else {
+                misses.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+        long[] computing = new long[1];
+        misses.forEach((key, positions) -> {
+            SearchResponseDto response = cache != null ? load(cache, key, computing) : search(key);
+            positions.forEach(i -> responses[i] = response);
+        });
+        searchMetrics.record(SearchMetrics.Stage.CACHE_LOOKUP, System.nanoTime() - lookupStarted - computing[0]);
+        return List.of(responses);
     }
 
     /**
      * Finds a restaurant by its ID.
-     * The method caches the result to improve performance on subsequent requests.
+     * The method caches the result to improve performance on subsequent requests; concurrent misses for the same
+     * ID share a single repository lookup.
      *
      * @param id the ID of the restaurant to find
      * @return the details of the restaurant
      * @throws RestaurantNotFoundException if no restaurant with the given ID is found
      */
-    @Cacheable(value = "restaurants", key = "#id")
+    @Cacheable(value = "restaurants", key = "#id", sync = true)
     @Override
     public RestaurantDetailsResponseDto findRestaurantById(String id) {
         // Validate and parse the UUID from the String id before proceeding
         validateAndParseUUID(id);
         // Fetch the restaurant by ID
-        logger.info("Fetching restaurant by ID: {} ", id);
+        logger.debug("Fetching restaurant by ID: {} ", id);
         return restaurantRepository.findById(id)
                 .map(responseMapper::toDto)
                 .orElseThrow(() -> new RestaurantNotFoundException("Restaurant with ID " + id + " not found"));
@@ -79,29 +230,129 @@ public class RestaurantServiceImpl implements RestaurantService {
     /**
      * Adds or updates a restaurant.
      * If the restaurant with the given ID exists, it updates it; otherwise, it creates a new one.
-     * The method also clears the cache for the restaurant search results.
+     * Cached search results are evicted only for the locations inside the old or new visibility disc.
      *
      * @param id the ID of the restaurant to add or update
      * @param restaurantDto the details of the restaurant to add or update
      * @return the added or updated restaurant details
      */
     @CachePut(value = "restaurants", key = "#id")
-    @CacheEvict(value = "restaurantSearchCache", allEntries = true)
     @Override
     public RestaurantDetailsResponseDto addOrUpdateRestaurant(String id, RestaurantDetailsResponseDto restaurantDto) {
         // Convert String id to UUID and set in DTO
         UUID uuid = validateAndParseUUID(id);
         restaurantDto.setId(uuid);
-        logger.info("Adding or updating restaurant with ID: {}", id);
+        logger.debug("Adding or updating restaurant with ID: {}", id);
         // Map DTO to entity
         var restaurantEntity = requestMapper.toEntity(restaurantDto);
+        // Remember the previous position so that searches which used to see it are evicted as well
+        var previous = spatialIndex.isLoaded()
+                ? spatialIndex.get(id).orElse(null)
+                : restaurantRepository.findLocationsById(List.of(id)).stream().findFirst().orElse(null);
 
         // Save (add or update)
         var resultEntity = restaurantRepository.save(restaurantEntity);
-        logger.info("Restaurant with ID: {} updated", resultEntity.getId());
+        var resultLocation = RestaurantLocation.of(resultEntity);
+        spatialIndex.upsert(resultLocation);
+        searchCacheInvalidator.evictVisibleFrom(previous);
+        searchCacheInvalidator.evictVisibleFrom(resultLocation);
+        logger.debug("Restaurant with ID: {} updated", resultEntity.getId());
         return responseMapper.toDto(resultEntity);
     }
 
+    /**
+     * Returns the cached search for a location, computing it on a miss. Concurrent misses for the same location
+     * share one computation, and a computation whose key is evicted meanwhile is returned but not cached.
+     *
+     * @param computing accumulates the time spent computing, in nanoseconds, so it can be told apart from the lookup
+     */
+    private SearchResponseDto load(Cache cache, SearchKey key, long[] computing) {
+        try {
+            return cache.get(key, () -> {
+                long computeStarted = System.nanoTime();
+                try {
+                    return search(key);
+                } finally {
+                    computing[0] += System.nanoTime() - computeStarted;
+                }
+            });
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Computes a search about to be cached. Its key is registered first, so a write made during the computation
+     * evicts the result; if the computation fails nothing is cached and the key is forgotten again.
+     */
+    private SearchResponseDto search(SearchKey key) {
+        searchKeyRegistry.register(key);
+        try {
+            return compute(key);
+        } catch (RuntimeException e) {
+            searchKeyRegistry.forget(key);
+            throw e;
+        }
+    }
+
+    private SearchResponseDto compute(SearchKey key) {
+        int x = key.x();
+        int y = key.y();
+        if (key.isPage()) {
+            return searchPage(x, y, key.limit(), key.offset());
+        }
+        logger.info(LogMarkers.SAMPLED, "Searching for restaurants near coordinates: x={}, y={}", x, y);
+        Visible visible = findVisibleRestaurants(x, y);
+        SearchResponseDto response = searchMetrics.time(SearchMetrics.Stage.MAPPING,
+                () -> responseMapper.toSearchResponse(visible.restaurants(), x, y));
+        searchMetrics.recordQuery(visible.candidates(), visible.restaurants().size());
+        return response;
+    }
+
+    private SearchResponseDto searchPage(int x, int y, int limit, int offset) {
+        logger.info(LogMarkers.SAMPLED, "Searching for {} restaurants from offset {} near coordinates: x={}, y={}",
+                limit, offset, x, y);
+        if (spatialIndex.isLoaded()) {
+            NearestRestaurants nearest = searchMetrics.time(SearchMetrics.Stage.FILTER,
+                    () -> spatialIndex.nearest(x, y, end(limit, offset)));
+            SearchResponseDto response = searchMetrics.time(SearchMetrics.Stage.MAPPING,
+                    () -> responseMapper.toSearchResponse(nearest, x, y, offset));
+            searchMetrics.recordQuery(spatialIndex.candidateCount(x, y), response.getLocations().size());
+            return response;
+        }
+        Visible visible = findVisibleRestaurants(x, y);
+        SearchResponseDto response = searchMetrics.time(SearchMetrics.Stage.MAPPING,
+                () -> responseMapper.toSearchResponse(visible.restaurants(), x, y, limit, offset));
+        searchMetrics.recordQuery(visible.candidates(), response.getLocations().size());
+        return response;
+    }
+
+    private Visible findVisibleRestaurants(int x, int y) {
+        if (spatialIndex.isLoaded()) {
+            List<RestaurantLocation> visible = searchMetrics.time(SearchMetrics.Stage.FILTER, () -> spatialIndex.query(x, y));
+            return new Visible(visible, spatialIndex.candidateCount(x, y));
+        }
+        GeometryBlock candidates = tileCandidateCache.candidates(x, y);
+        List<RestaurantLocation> visible = new ArrayList<>();
+        searchMetrics.time(SearchMetrics.Stage.FILTER, () -> {
+            candidates.forEachContaining(x, y, visible::add);
+            return visible;
+        });
+        return new Visible(visible, candidates.size());
+    }
+
+    private Stream<RestaurantLocation> streamVisibleFromRepository(int x, int y) {
+        return restaurantRepository.streamIntersecting(x, x, y, y)
+                .filter(restaurant -> isRestaurantNearby(restaurant, x, y));
+    }
+
+    private static int end(int limit, int offset) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+    }
+
     private UUID validateAndParseUUID(String id) {
         try {
             return UUID.fromString(id);
@@ -115,14 +366,17 @@ public class RestaurantServiceImpl implements RestaurantService {
      * @param restaurant- the restaurant to check
      * @param x the x-coordinate
      * @param y the y-coordinate
-     * distance is calculated using the Euclidean distance formula.If the distance is less than or equal to the restaurant's radius, it returns true.
+     * The squared Euclidean distance is compared with the squared radius, so no square root is taken.
      * @return  true if the restaurant is within the radius, false otherwise
      */
-    private boolean isRestaurantNearby(Restaurant restaurant, int x, int y) {
-        int dx = restaurant.getCoordinates().getX() - (x);
-        int dy = restaurant.getCoordinates().getY() - y;
-        double distance = Math.sqrt((double)(dx * dx) + dy * dy);
-        return (distance <= restaurant.getRadius());
+    static boolean isRestaurantNearby(RestaurantLocation restaurant, int x, int y) {
+        return SpatialGridIndex.contains(restaurant, x, y);
+    }
+
+    /**
+     * The restaurants visible from a point, with the number of candidates the visibility test was applied to.
+     */
+    private record Visible(List<RestaurantLocation> restaurants, int candidates) {
     }
 
 
@@ -0,0 +1,288 @@
+package com.sample.restaurant.search.sync;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import com.sample.restaurant.search.cache.SearchCacheInvalidator;
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.index.SpatialGridIndex;
+import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the spatial index and the caches of this instance in step with writes made by any instance.
+ * A MongoDB change stream on the restaurants collection is followed on a background thread; every insert, update,
+ * replace or delete moves the restaurant in the index and evicts the searches and tiles around its old and new
+ * position, as a local write does. Writes of this instance are therefore applied twice, which is harmless.
+ * <p>
+ * The resume token of the last event (or of the last empty batch) is kept, so after a disconnect the stream resumes
+ * where it stopped instead of missing changes. If the server no longer has that point in its oplog, the index is
+ * rebuilt and the caches are cleared. Change streams need a replica set; on a standalone server the component logs
+ * a warning and stops, and other instances' changes are only seen after the caches expire.
+ */
+@Component
+public class RestaurantChangeStreamSync implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantChangeStreamSync.class);
+
+    /**
+     * The $changeStream stage is only supported on replica sets.
+     */
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private static final List<String> WATCHED_OPERATIONS =
+            List.of("insert", "update", "replace", "delete", "drop", "rename", "invalidate");
+    private static final List<String> PROJECTED_FIELDS = projectedFields();
+
+    private final MongoTemplate mongoTemplate;
+    private final RestaurantRepository restaurantRepository;
+    private final SpatialGridIndex spatialIndex;
+    private final SearchCacheInvalidator searchCacheInvalidator;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final boolean indexEnabled;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile BsonDocument resumeToken;
+    private boolean resyncNeeded;
+
+    public RestaurantChangeStreamSync(MongoTemplate mongoTemplate, RestaurantRepository restaurantRepository,
+                                      SpatialGridIndex spatialIndex, SearchCacheInvalidator searchCacheInvalidator,
+                                      CacheManager cacheManager,
+                                      @Value("${restaurant.sync.change-stream.enabled:true}") boolean enabled,
+                                      @Value("${restaurant.index.enabled:true}") boolean indexEnabled,
+                                      @Value("${restaurant.sync.change-stream.retry-delay:1s}") Duration retryDelay,
+                                      @Value("${restaurant.sync.change-stream.max-retry-delay:30s}") Duration maxRetryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.restaurantRepository = restaurantRepository;
+        this.spatialIndex = spatialIndex;
+        this.searchCacheInvalidator = searchCacheInvalidator;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.indexEnabled = indexEnabled;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    /**
+     * Starts following the change stream. The stream is opened on the background thread, so an unreachable
+     * database does not delay startup.
+     */
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Change stream sync disabled, changes made by other instances are not applied");
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("restaurant-change-stream").start(this::follow);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the resume token of the last event seen, or null before the first one
+     */
+    public BsonDocument getResumeToken() {
+        return resumeToken;
+    }
+
+    private void follow() {
+        long delay = retryDelay.toMillis();
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open()) {
+                logger.info("Following restaurant changes{}", resumeToken != null ? " from the last resume token" : "");
+                delay = retryDelay.toMillis();
+                if (resyncNeeded) {
+                    resync();
+                }
+                while (running) {
+                    ChangeStreamDocument<Document> event = cursor.tryNext();
+                    if (event != null && !apply(event)) {
+                        break;
+                    }
+                    BsonDocument token = cursor.getResumeToken();
+                    if (token != null) {
+                        resumeToken = token;
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    logger.warn("MongoDB is not a replica set, changes made by other instances are not applied: {}",
+                            e.getErrorMessage());
+                    running = false;
+                    return;
+                }
+                delay = retry(e, delay);
+            } catch (MongoException | DataAccessException e) {
+                delay = retry(e, delay);
+            } catch (RuntimeException e) {
+                // A failed resync or an event that cannot be converted must not end the thread while isRunning() holds
+                logger.error("Unexpected failure following restaurant changes", e);
+                delay = retry(e, delay);
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Restaurant.class))
+                .watch(List.of(
+                        Aggregates.match(Filters.in("operationType", WATCHED_OPERATIONS)),
+                        Aggregates.project(Projections.include(PROJECTED_FIELDS))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                // Only returned when pre-images are enabled on the collection; otherwise the index supplies the old state
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        BsonDocument token = resumeToken;
+        return (token != null ? stream.resumeAfter(token) : stream).cursor();
+    }
+
+    private long retry(RuntimeException e, long delay) {
+        if (!running) {
+            return delay;
+        }
+        if (e instanceof MongoException mongoException && isHistoryLost(mongoException)) {
+            logger.warn("Change stream can no longer resume, the index and caches will be resynchronized: {}", e.getMessage());
+            resumeToken = null;
+            resyncNeeded = true;
+        } else {
+            logger.warn("Change stream interrupted, resuming in {} ms: {}", delay, e.getMessage());
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(delay * 2, maxRetryDelay.toMillis());
+    }
+
+    private static boolean isHistoryLost(MongoException e) {
+        return e.getCode() == CHANGE_STREAM_HISTORY_LOST || e.getCode() == CHANGE_STREAM_FATAL_ERROR
+                || e.hasErrorLabel("NonResumableChangeStreamError");
+    }
+
+    /**
+     * Applies one change event.
+     *
+     * @return false if the stream was invalidated and has to be reopened
+     */
+    boolean apply(ChangeStreamDocument<Document> event) {
+        OperationType type = event.getOperationType();
+        if (type == OperationType.INVALIDATE || type == OperationType.DROP || type == OperationType.RENAME) {
+            logger.warn("Restaurant change stream invalidated by {}, resynchronizing", type.getValue());
+            resumeToken = null;
+            resyncNeeded = true;
+            return false;
+        }
+        BsonValue key = event.getDocumentKey() != null ? event.getDocumentKey().get("_id") : null;
+        if (key == null) {
+            return true;
+        }
+        apply(type, key.isString() ? key.asString().getValue() : key.toString(),
+                toLocation(event.getFullDocument()), toLocation(event.getFullDocumentBeforeChange()));
+        return true;
+    }
+
+    /**
+     * Applies a change to one restaurant to the index and the caches.
+     *
+     * @param type     the kind of change
+     * @param id       the ID of the changed restaurant
+     * @param current  the restaurant after the change, or null if it was deleted
+     * @param previous the restaurant before the change, or null if unknown
+     */
+    void apply(OperationType type, String id, RestaurantLocation current, RestaurantLocation previous) {
+        if (previous == null && spatialIndex.isLoaded()) {
+            previous = spatialIndex.get(id).orElse(null);
+        }
+        if (current != null && type != OperationType.DELETE) {
+            spatialIndex.upsert(current);
+        } else {
+            spatialIndex.remove(id);
+        }
+        if (previous == null && type != OperationType.INSERT && !spatialIndex.isLoaded()) {
+            // Old position unknown: any cached search may have shown the restaurant there
+            searchCacheInvalidator.evictAll();
+        } else {
+            searchCacheInvalidator.evictVisibleFrom(previous);
+        }
+        searchCacheInvalidator.evictVisibleFrom(type == OperationType.DELETE ? null : current);
+        Cache details = cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE);
+        if (details != null) {
+            details.evict(id);
+        }
+        logger.debug("Applied {} of restaurant {} from the change stream", type.getValue(), id);
+    }
+
+    private void resync() {
+        if (indexEnabled) {
+            // Events applied by other threads while the catalogue is read are replayed on the rebuilt index
+            spatialIndex.rebuild(restaurantRepository::findAllLocations);
+        }
+        searchCacheInvalidator.evictAll();
+        Cache details = cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE);
+        if (details != null) {
+            details.clear();
+        }
+        // Only cleared once done, so a resync that fails is attempted again after the stream is reopened
+        resyncNeeded = false;
+        logger.info("Resynchronized restaurants after the change stream could not resume");
+    }
+
+    private RestaurantLocation toLocation(Document document) {
+        return document != null ? mongoTemplate.getConverter().read(RestaurantLocation.class, document) : null;
+    }
+
+    private static List<String> projectedFields() {
+        List<String> fields = new ArrayList<>(List.of("operationType", "documentKey"));
+        for (String field : RestaurantLocation.FIELDS) {
+            fields.add("fullDocument." + field);
+            fields.add("fullDocumentBeforeChange." + field);
+        }
+        return List.copyOf(fields);
+    }
+}
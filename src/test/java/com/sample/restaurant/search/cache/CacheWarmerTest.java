@@ -0,0 +1,111 @@
+package com.sample.restaurant.search.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.dto.LocationDto;
+import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.mapper.ResponseMapper;
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.HotSearchKeys;
+import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.repository.HotSearchKeysRepository;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import com.sample.restaurant.search.service.RestaurantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class CacheWarmerTest {
+
+    private RestaurantService restaurantService;
+    private RestaurantRepository restaurantRepository;
+    private HotSearchKeysRepository hotSearchKeysRepository;
+    private ResponseMapper responseMapper;
+    private CaffeineCacheManager cacheManager;
+    private CacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        restaurantService = mock(RestaurantService.class);
+        restaurantRepository = mock(RestaurantRepository.class);
+        hotSearchKeysRepository = mock(HotSearchKeysRepository.class);
+        responseMapper = mock(ResponseMapper.class);
+        cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.SEARCH_CACHE, Caffeine.newBuilder().maximumSize(100).build());
+        cacheManager.registerCustomCache(CacheConfig.RESTAURANTS_CACHE, Caffeine.newBuilder().maximumSize(100).build());
+        warmer = new CacheWarmer(restaurantService, restaurantRepository, hotSearchKeysRepository, responseMapper,
+                cacheManager, true, 2, 10, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testReplaysHotSearchesAndPrimesTheirRestaurants() {
+        List<Coordinates> hot = List.of(new Coordinates(1, 1), new Coordinates(2, 2));
+        UUID id = UUID.randomUUID();
+        Restaurant restaurant = new Restaurant.Builder().id(id.toString()).build();
+        RestaurantDetailsResponseDto details = new RestaurantDetailsResponseDto();
+
+        when(hotSearchKeysRepository.findById(HotSearchKeys.SEARCH))
+                .thenReturn(Optional.of(new HotSearchKeys(HotSearchKeys.SEARCH, hot, null)));
+        when(restaurantService.restaurantLocatorBatch(hot)).thenReturn(List.of(
+                new SearchResponseDto("x=1,y=1", List.of(new LocationDto(id, "a", "x=1,y=1", 0))),
+                new SearchResponseDto("x=2,y=2", List.of())));
+        when(restaurantRepository.findAllById(List.of(id.toString()))).thenReturn(List.of(restaurant));
+        when(responseMapper.toDto(restaurant)).thenReturn(details);
+
+        warmer.run(null);
+
+        assertSame(details, cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE).get(id.toString()).get());
+    }
+
+    @Test
+    void testUnreachableDatabaseDoesNotFailStartup() {
+        when(hotSearchKeysRepository.findById(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertDoesNotThrow(() -> warmer.run(null));
+        verifyNoInteractions(restaurantService);
+    }
+
+    @Test
+    void testSavesHottestSearchKeys() {
+        var cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        cache.put(new SearchKey(1, 1), new SearchResponseDto("x=1,y=1", List.of()));
+        cache.put(new SearchKey(2, 2), new SearchResponseDto("x=2,y=2", List.of()));
+        cache.put(new SearchKey(3, 3), new SearchResponseDto("x=3,y=3", List.of()));
+
+        warmer.saveHotKeys();
+
+        verify(hotSearchKeysRepository).save(argThat(saved -> saved.getId().equals(HotSearchKeys.SEARCH)
+                && saved.getLocations().size() == 2 && saved.getSavedAt() != null));
+    }
+
+    @Test
+    void testLeavesPagesOutOfHottestSearches() {
+        var cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        cache.put(new SearchKey(1, 1, 10, 0), new SearchResponseDto("x=1,y=1", List.of()));
+        cache.put(new SearchKey(2, 2), new SearchResponseDto("x=2,y=2", List.of()));
+
+        List<Coordinates> hottest = warmer.hottestSearches();
+
+        assertEquals(1, hottest.size());
+        assertEquals(2, hottest.get(0).getX());
+    }
+
+    @Test
+    void testEmptyCacheKeepsPreviousSnapshot() {
+        warmer.saveHotKeys();
+
+        verifyNoInteractions(hotSearchKeysRepository);
+    }
+}
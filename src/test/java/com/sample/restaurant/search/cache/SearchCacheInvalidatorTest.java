@@ -0,0 +1,88 @@
+package com.sample.restaurant.search.cache;
+
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class SearchCacheInvalidatorTest {
+
+    private Cache cache;
+    private SearchKeyRegistry registry;
+    private TileCandidateCache tileCandidateCache;
+    private SearchCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.SEARCH_CACHE);
+        cache = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        registry = new SearchKeyRegistry(4);
+        tileCandidateCache = mock(TileCandidateCache.class);
+        invalidator = new SearchCacheInvalidator(cacheManager, registry, tileCandidateCache);
+    }
+
+    @Test
+    void testEvictsOnlyKeysInsideDisc() {
+        SearchKey inside = cached(3, 3);
+        SearchKey corner = cached(4, 4);
+        SearchKey far = cached(40, 40);
+
+        RestaurantLocation restaurant = new RestaurantLocation("a", null, new Coordinates(2, 2), 2);
+        invalidator.evictVisibleFrom(restaurant);
+
+        assertNull(cache.get(inside));
+        assertNotNull(cache.get(corner));
+        assertNotNull(cache.get(far));
+        assertEquals(2, registry.size());
+        verify(tileCandidateCache).evictIntersecting(restaurant);
+    }
+
+    @Test
+    void testEvictsPagesWithTheirLocation() {
+        SearchKey page = new SearchKey(3, 3, 10, 0);
+        registry.register(page);
+        cache.put(page, new SearchResponseDto(page.toString(), List.of()));
+
+        invalidator.evictVisibleFrom(new RestaurantLocation("a", null, new Coordinates(2, 2), 2));
+
+        assertNull(cache.get(page));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testEvictAllEmptiesRegistryWithCache() {
+        SearchKey key = cached(1, 1);
+        cached(40, 40);
+
+        invalidator.evictAll();
+
+        assertNull(cache.get(key));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testIgnoresMissingRestaurant() {
+        SearchKey key = cached(1, 1);
+
+        invalidator.evictVisibleFrom(null);
+
+        assertNotNull(cache.get(key));
+    }
+
+    private SearchKey cached(int x, int y) {
+        SearchKey key = new SearchKey(x, y);
+        registry.register(key);
+        cache.put(key, new SearchResponseDto(key.toString(), List.of()));
+        return key;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sample.restaurant.search.cache;
+
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.index.GeometryBlock;
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TileCandidateCacheTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TileCandidateCache tileCandidateCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tileCandidateCache = new TileCandidateCache(restaurantRepository,
+                new CaffeineCacheManager(CacheConfig.TILE_CACHE), meterRegistry, 10);
+    }
+
+    @Test
+    void testPointsInSameTileShareOneQuery() {
+        RestaurantLocation restaurant = restaurant(12, 12, 3);
+        when(restaurantRepository.findIntersecting(10, 19, 10, 19)).thenReturn(List.of(restaurant));
+
+        assertEquals(List.of(restaurant), visible(tileCandidateCache.candidates(11, 12), 12, 12));
+        assertEquals(List.of(restaurant), visible(tileCandidateCache.candidates(19, 10), 12, 12));
+
+        verify(restaurantRepository, times(1)).findIntersecting(10, 19, 10, 19);
+        assertEquals(0.5, meterRegistry.get("restaurant.search.tile.hit.gain").gauge().value());
+    }
+
+    @Test
+    void testEdgeTileBoundsAreClampedToIntRange() {
+        when(restaurantRepository.findIntersecting(2147483640, Integer.MAX_VALUE, 0, 9)).thenReturn(List.of());
+
+        assertEquals(0, tileCandidateCache.candidates(Integer.MAX_VALUE, 5).size());
+
+        verify(restaurantRepository).findIntersecting(2147483640, Integer.MAX_VALUE, 0, 9);
+    }
+
+    @Test
+    void testEvictIntersectingReloadsAffectedTiles() {
+        RestaurantLocation restaurant = restaurant(12, 12, 3);
+        when(restaurantRepository.findIntersecting(10, 19, 10, 19)).thenReturn(List.of(restaurant));
+        when(restaurantRepository.findIntersecting(40, 49, 40, 49)).thenReturn(List.of());
+        tileCandidateCache.candidates(11, 12);
+        tileCandidateCache.candidates(41, 42);
+
+        tileCandidateCache.evictIntersecting(restaurant);
+        tileCandidateCache.candidates(11, 12);
+        tileCandidateCache.candidates(41, 42);
+
+        verify(restaurantRepository, times(2)).findIntersecting(10, 19, 10, 19);
+        verify(restaurantRepository, times(1)).findIntersecting(40, 49, 40, 49);
+    }
+
+    private static List<RestaurantLocation> visible(GeometryBlock block, int x, int y) {
+        List<RestaurantLocation> visible = new ArrayList<>();
+        block.forEachContaining(x, y, visible::add);
+        return visible;
+    }
+
+    private static RestaurantLocation restaurant(int x, int y, int radius) {
+        return new RestaurantLocation("r", null, new Coordinates(x, y), radius);
+    }
+}
@@ -0,0 +1,111 @@
+package com.sample.restaurant.search.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.sample.restaurant.search.cache.SearchKey;
+import com.sample.restaurant.search.cache.SearchKeyRegistry;
+import com.sample.restaurant.search.dto.LocationDto;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    @Test
+    void testCachesAreBoundedAndRecordStats() {
+        CacheProperties properties = new CacheProperties();
+        properties.setSearch(new CacheProperties.Spec(null, 10L, Duration.ofMinutes(1)));
+        properties.setRestaurants(new CacheProperties.Spec(5L, null, null));
+
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties, new SearchKeyRegistry(16));
+
+        Cache<Object, Object> search = nativeCache(cacheManager, CacheConfig.SEARCH_CACHE);
+        Cache<Object, Object> restaurants = nativeCache(cacheManager, CacheConfig.RESTAURANTS_CACHE);
+        assertEquals(10L, search.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(search.policy().eviction().orElseThrow().isWeighted());
+        assertTrue(search.policy().expireAfterWrite().isPresent());
+        assertEquals(5L, restaurants.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(restaurants.policy().isRecordingStats());
+    }
+
+    @Test
+    void testSearchResultsWeighTheirLocations() {
+        CacheProperties properties = new CacheProperties();
+        properties.setSearch(new CacheProperties.Spec(null, 10L, null));
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties, new SearchKeyRegistry(16));
+        Cache<Object, Object> search = nativeCache(cacheManager, CacheConfig.SEARCH_CACHE);
+
+        search.put(new SearchKey(1, 1), new SearchResponseDto("x=1,y=1", List.of(new LocationDto(), new LocationDto())));
+        search.cleanUp();
+
+        assertEquals(3L, search.policy().eviction().orElseThrow().weightedSize().orElseThrow());
+    }
+
+    @Test
+    void testEvictedSearchKeysLeaveRegistry() {
+        CacheProperties properties = new CacheProperties();
+        properties.setSearch(new CacheProperties.Spec(1L, null, null));
+        SearchKeyRegistry registry = new SearchKeyRegistry(16);
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties, registry);
+        Cache<Object, Object> search = nativeCache(cacheManager, CacheConfig.SEARCH_CACHE);
+
+        for (int i = 0; i < 3; i++) {
+            SearchKey key = new SearchKey(i, i);
+            registry.register(key);
+            search.put(key, new SearchResponseDto(key.toString(), List.of()));
+        }
+        search.cleanUp();
+
+        assertEquals(search.estimatedSize(), registry.size());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneComputation() throws Exception {
+        CacheManager cacheManager = new CacheConfig().cacheManager(new CacheProperties(), new SearchKeyRegistry(16));
+        org.springframework.cache.Cache search = cacheManager.getCache(CacheConfig.SEARCH_CACHE);
+        SearchKey key = new SearchKey(4, 2);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<SearchResponseDto> loader = () -> {
+            computations.incrementAndGet();
+            release.await();
+            return new SearchResponseDto(key.toString(), List.of());
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SearchResponseDto>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> search.get(key, loader)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            SearchResponseDto first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<SearchResponseDto> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,68 @@
+package com.sample.restaurant.search.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePropertiesTest {
+
+    @Test
+    void testConfiguredSizeReplacesDefaultWeight() {
+        CacheProperties properties = bind(Map.of("restaurant.cache.search.maximum-size", "500"));
+
+        assertEquals(500L, properties.getSearch().getMaximumSize());
+        assertNull(properties.getSearch().getMaximumWeight());
+        Policy.Eviction<Object, Object> eviction = eviction(properties.getSearch());
+        assertFalse(eviction.isWeighted());
+        assertEquals(500L, eviction.getMaximum());
+    }
+
+    @Test
+    void testConfiguredWeightReplacesDefaultSize() {
+        CacheProperties properties = bind(Map.of("restaurant.cache.restaurants.maximum-weight", "2000"));
+
+        assertNull(properties.getRestaurants().getMaximumSize());
+        Policy.Eviction<Object, Object> eviction = eviction(properties.getRestaurants());
+        assertTrue(eviction.isWeighted());
+        assertEquals(2000L, eviction.getMaximum());
+    }
+
+    @Test
+    void testDefaultsApplyWhenNothingIsConfigured() {
+        CacheProperties properties = bind(Map.of("restaurant.cache.search.expire-after-write", "1m"));
+
+        assertTrue(eviction(properties.getSearch()).isWeighted());
+        assertEquals(50_000L, properties.getSearch().getMaximumWeight());
+        assertEquals(50_000L, properties.getRestaurants().getMaximumSize());
+    }
+
+    @Test
+    void testConfiguringBothBoundsFails() {
+        Map<String, String> both = Map.of(
+                "restaurant.cache.tiles.maximum-size", "500",
+                "restaurant.cache.tiles.maximum-weight", "5000");
+
+        BindException e = assertThrows(BindException.class, () -> bind(both));
+        assertInstanceOf(IllegalArgumentException.class, NestedExceptionUtils.getMostSpecificCause(e));
+    }
+
+    private static CacheProperties bind(Map<String, String> source) {
+        return new Binder(new MapConfigurationPropertySource(source))
+                .bind("restaurant.cache", Bindable.ofInstance(new CacheProperties()))
+                .get();
+    }
+
+    private static Policy.Eviction<Object, Object> eviction(CacheProperties.Spec spec) {
+        Cache<Object, Object> cache = CacheConfig.build(spec).build();
+        return cache.policy().eviction().orElseThrow();
+    }
+}
@@ -0,0 +1,48 @@
+package com.sample.restaurant.search.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestaurantConfigTest {
+
+    @Test
+    void shouldApplyConfiguredPoolTimeoutsAndCompressors() {
+        MongoClientProperties properties = new MongoClientProperties();
+        properties.getPool().setMaxSize(42);
+        properties.getPool().setMaxWaitTime(Duration.ofMillis(1500));
+        properties.setReadTimeout(Duration.ofSeconds(3));
+        properties.setCompressors(List.of("snappy", "zlib"));
+
+        MongoClientSettings settings = RestaurantConfig.clientSettings(
+                new ConnectionString("mongodb://localhost:27017/restaurantdb"), properties, new SimpleMeterRegistry());
+
+        assertThat(settings.getConnectionPoolSettings().getMaxSize()).isEqualTo(42);
+        assertThat(settings.getConnectionPoolSettings().getMinSize()).isEqualTo(10);
+        assertThat(settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS)).isEqualTo(1500);
+        assertThat(settings.getConnectionPoolSettings().getConnectionPoolListeners())
+                .hasAtLeastOneElementOfType(MongoMetricsConnectionPoolListener.class);
+        assertThat(settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS)).isEqualTo(3000);
+        assertThat(settings.getCompressorList()).extracting(MongoCompressor::getName).containsExactly("snappy", "zlib");
+    }
+
+    @Test
+    void shouldRejectUnknownCompressor() {
+        MongoClientProperties properties = new MongoClientProperties();
+        properties.setCompressors(List.of("lz4"));
+
+        assertThatThrownBy(() -> RestaurantConfig.clientSettings(
+                new ConnectionString("mongodb://localhost:27017"), properties, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
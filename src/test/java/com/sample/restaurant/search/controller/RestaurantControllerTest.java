@@ -0,0 +1,108 @@
+package com.sample.restaurant.search.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.restaurant.search.dto.LocationDto;
+import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.metrics.SearchMetrics;
+import com.sample.restaurant.search.service.RestaurantImportService;
+import com.sample.restaurant.search.service.RestaurantService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class RestaurantControllerTest {
+
+    private final RestaurantService restaurantService = mock(RestaurantService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        SearchResponseEncoder encoder = new SearchResponseEncoder(objectMapper, true, DataSize.ofBytes(100));
+        RestaurantController controller = new RestaurantController(restaurantService,
+                mock(RestaurantImportService.class), objectMapper, encoder);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new SearchResponseMessageConverter(objectMapper, encoder,
+                        new SearchMetrics(new SimpleMeterRegistry())))
+                .build();
+    }
+
+    @Test
+    void testSearchAnswersNotModifiedForCurrentTag() throws Exception {
+        when(restaurantService.restaurantLocator(1, 2)).thenReturn(new SearchResponseDto("x=1,y=2", List.of()));
+
+        String etag = mockMvc.perform(get("/locations/search?x=1&y=2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(jsonPath("$.userLocation").value("x=1,y=2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"));
+        mockMvc.perform(get("/locations/search?x=1&y=2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void testLargeSearchIsGzippedWithItsOwnTag() throws Exception {
+        List<LocationDto> locations = Collections.nCopies(20, new LocationDto(UUID.randomUUID(), "Pizza", "x=1,y=1", 1));
+        SearchResponseDto response = new SearchResponseDto("x=1,y=2", locations);
+        when(restaurantService.restaurantLocator(1, 2)).thenReturn(response);
+
+        byte[] body = mockMvc.perform(get("/locations/search?x=1&y=2").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, response.getEncoded().getGzipEtag()))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(response.getEncoded().getJson(), gunzip(body));
+        mockMvc.perform(get("/locations/search?x=1&y=2"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, response.getEncoded().getEtag()));
+    }
+
+    @Test
+    void testDetailsTaggedWithRevision() throws Exception {
+        String id = UUID.randomUUID().toString();
+        RestaurantDetailsResponseDto details = new RestaurantDetailsResponseDto();
+        details.setName("Pizza");
+        details.setUpdatedAt(Instant.parse("2025-03-01T10:15:30.123Z"));
+        when(restaurantService.findRestaurantById(id)).thenReturn(details);
+
+        String etag = mockMvc.perform(get("/locations/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedAt").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/locations/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        details.setUpdatedAt(Instant.parse("2025-03-01T10:15:31Z"));
+        mockMvc.perform(get("/locations/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
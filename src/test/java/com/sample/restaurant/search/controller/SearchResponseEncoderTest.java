@@ -0,0 +1,49 @@
+package com.sample.restaurant.search.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.restaurant.search.dto.EncodedJson;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResponseEncoderTest {
+
+    private final SearchResponseEncoder encoder =
+            new SearchResponseEncoder(new ObjectMapper(), true, DataSize.ofBytes(10));
+
+    @Test
+    void testEncodesOnceAndTagsByContent() {
+        SearchResponseDto response = new SearchResponseDto("x=1,y=2", List.of());
+
+        EncodedJson encoded = encoder.encode(response);
+
+        assertSame(encoded, encoder.encode(response));
+        assertEquals(encoded.getEtag(), encoder.encode(new SearchResponseDto("x=1,y=2", List.of())).getEtag());
+        assertNotEquals(encoded.getEtag(), encoder.encode(new SearchResponseDto("x=2,y=1", List.of())).getEtag());
+        assertNotEquals(encoded.getEtag(), encoded.getGzipEtag());
+    }
+
+    @Test
+    void testGzipsLargeResponsesForAcceptingClients() {
+        EncodedJson small = new EncodedJson("{}".getBytes());
+        EncodedJson large = new EncodedJson("{\"userLocation\":\"x=1,y=2\"}".getBytes());
+
+        assertTrue(encoder.shouldGzip(large, "gzip, deflate, br"));
+        assertFalse(encoder.shouldGzip(small, "gzip"));
+        assertFalse(encoder.shouldGzip(large, null));
+        assertFalse(new SearchResponseEncoder(new ObjectMapper(), false, DataSize.ofBytes(0)).shouldGzip(large, "gzip"));
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(SearchResponseEncoder.acceptsGzip("GZIP;q=0.5"));
+        assertTrue(SearchResponseEncoder.acceptsGzip("br, *"));
+        assertFalse(SearchResponseEncoder.acceptsGzip("identity"));
+        assertFalse(SearchResponseEncoder.acceptsGzip("gzip;q=0, *"));
+        assertFalse(SearchResponseEncoder.acceptsGzip("*;q=1, gzip; q=0.0"));
+    }
+}
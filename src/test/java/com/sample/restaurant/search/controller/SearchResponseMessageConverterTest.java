@@ -0,0 +1,86 @@
+package com.sample.restaurant.search.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.restaurant.search.dto.LocationDto;
+import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.metrics.SearchMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResponseMessageConverterTest {
+
+    private static final UUID ID = UUID.fromString("8b2f2a8e-6d5c-4c1e-9a43-0f3e2b7c1d55");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SearchResponseMessageConverter converter = new SearchResponseMessageConverter(objectMapper,
+            new SearchResponseEncoder(objectMapper, true, DataSize.ofBytes(0)), new SearchMetrics(meterRegistry));
+
+    @Test
+    void testWritesCachedEncodingOnLaterWrites() throws IOException {
+        LocationDto location = new LocationDto(ID, "Pizza", "x=1,y=1", 1.5);
+        SearchResponseDto response = new SearchResponseDto("x=1,y=2", List.of(location));
+
+        String first = write(response);
+        location.setName("Changed after the first write");
+        String second = write(response);
+
+        assertEquals(objectMapper.writeValueAsString(new SearchResponseDto("x=1,y=2",
+                List.of(new LocationDto(ID, "Pizza", "x=1,y=1", 1.5)))), first);
+        assertEquals(first, second);
+        assertFalse(first.contains("encodedJson"));
+        assertEquals(2, meterRegistry.get("restaurant.search.stage").tag("stage", "serialization").timer().count());
+    }
+
+    @Test
+    void testSettingAFieldDiscardsTheEncoding() throws IOException {
+        SearchResponseDto response = new SearchResponseDto("x=1,y=2", List.of());
+        write(response);
+
+        response.setNextOffset(10);
+
+        assertNull(response.getEncoded());
+        assertTrue(write(response).contains("\"nextOffset\":10"));
+    }
+
+    @Test
+    void testWritesBatchAsArrayAndOtherTypesAsUsual() throws IOException {
+        List<SearchResponseDto> batch = List.of(new SearchResponseDto("x=1,y=1", List.of()),
+                new SearchResponseDto("x=2,y=2", List.of(new LocationDto(ID, "Sushi", "x=2,y=2", 0))));
+
+        assertEquals(objectMapper.writeValueAsString(batch), write(batch));
+        assertEquals("{\"a\":1}", write(Map.of("a", 1)));
+    }
+
+    @Test
+    void testWritesGzipVariantWhenAskedFor() throws IOException {
+        SearchResponseDto response = new SearchResponseDto("x=1,y=2", List.of());
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        message.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        converter.write(response, SearchResponseDto.class, MediaType.APPLICATION_JSON, message);
+
+        assertArrayEquals(response.getEncoded().getGzipped(), message.getBodyAsBytes());
+        assertEquals(message.getBodyAsBytes().length, message.getHeaders().getContentLength());
+    }
+
+    private String write(Object value) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, value.getClass(), MediaType.APPLICATION_JSON, message);
+        if (value instanceof SearchResponseDto) {
+            assertEquals(message.getBodyAsBytes().length, message.getHeaders().getContentLength());
+        }
+        return message.getBodyAsString();
+    }
+}
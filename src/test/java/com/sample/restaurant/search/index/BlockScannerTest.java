@@ -0,0 +1,71 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockScannerTest {
+
+    private ForkJoinPool pool;
+    private GeometryBlock block;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        Random random = new Random(42);
+        List<RestaurantLocation> restaurants = new ArrayList<>();
+        for (int i = 0; i < 5 * BlockScanner.MIN_PARTITION; i++) {
+            String id = String.format("r%05d", i);
+            restaurants.add(new RestaurantLocation(id, id, new Coordinates(random.nextInt(200), random.nextInt(200)), random.nextInt(60)));
+        }
+        block = GeometryBlock.of(restaurants);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testParallelScanFindsSameRestaurantsInBlockOrder() {
+        List<RestaurantLocation> sequential = new ArrayList<>();
+        BlockScanner.sequential().collectContaining(block, 100, 100, sequential);
+        List<RestaurantLocation> parallel = new ArrayList<>();
+        new BlockScanner(pool, 1, 4).collectContaining(block, 100, 100, parallel);
+
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void testParallelNearestMergesPartitionTopK() {
+        NearestRestaurants sequential = new NearestRestaurants(25);
+        BlockScanner.sequential().collectNearest(block, 100, 100, sequential);
+        NearestRestaurants parallel = new NearestRestaurants(25);
+        new BlockScanner(pool, 1, 4).collectNearest(block, 100, 100, parallel);
+
+        assertEquals(25, parallel.getRestaurants().size());
+        assertEquals(sequential.getRestaurants(), parallel.getRestaurants());
+        assertEquals(sequential.getVisibleCount(), parallel.getVisibleCount());
+    }
+
+    @Test
+    void testSmallBlocksStayOnCallingThread() {
+        ForkJoinPool unused = new ForkJoinPool(1);
+        unused.shutdown();
+        List<RestaurantLocation> visible = new ArrayList<>();
+
+        new BlockScanner(unused, block.size() + 1, 4).collectContaining(block, 100, 100, visible);
+
+        assertFalse(visible.isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ContainmentKernelTest {
+
+    private static final int SIZE = 1003;
+
+    private int[] xs;
+    private int[] ys;
+    private long[] radiiSquared;
+    private RestaurantLocation[] restaurants;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(7);
+        xs = new int[SIZE];
+        ys = new int[SIZE];
+        radiiSquared = new long[SIZE];
+        restaurants = new RestaurantLocation[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // Includes coordinates far apart, whose squared distances only fit in a long
+            xs[i] = i % 97 == 0 ? Integer.MAX_VALUE - random.nextInt(10) : random.nextInt(100);
+            ys[i] = random.nextInt(100);
+            int radius = i % 89 == 0 ? Integer.MAX_VALUE : random.nextInt(40);
+            radiiSquared[i] = (long) radius * radius;
+            restaurants[i] = new RestaurantLocation("r" + i, "r" + i, new Coordinates(xs[i], ys[i]), radius);
+        }
+    }
+
+    @Test
+    void testVectorKernelMatchesScalar() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), "Vector API not available");
+        ContainmentKernel vector = new VectorContainmentKernel();
+
+        for (int[] point : new int[][]{{50, 50}, {0, 0}, {-5, 120}, {Integer.MIN_VALUE, 3}}) {
+            for (int from : new int[]{0, 3}) {
+                assertEquals(containing(ScalarContainmentKernel.INSTANCE, point, from), containing(vector, point, from));
+                assertEquals(nearest(ScalarContainmentKernel.INSTANCE, point, from), nearest(vector, point, from));
+            }
+        }
+    }
+
+    @Test
+    void testPreferredKernelFallsBackToScalarWhenDisabled() {
+        System.setProperty(ContainmentKernel.SIMD_PROPERTY, "false");
+        try {
+            assertSame(ScalarContainmentKernel.INSTANCE, ContainmentKernel.preferred());
+        } finally {
+            System.clearProperty(ContainmentKernel.SIMD_PROPERTY);
+        }
+    }
+
+    private List<RestaurantLocation> containing(ContainmentKernel kernel, int[] point, int from) {
+        List<RestaurantLocation> visible = new ArrayList<>();
+        kernel.forEachContaining(xs, ys, radiiSquared, restaurants, point[0], point[1], from, SIZE, visible::add);
+        return visible;
+    }
+
+    private List<Object> nearest(ContainmentKernel kernel, int[] point, int from) {
+        NearestRestaurants nearest = new NearestRestaurants(10);
+        kernel.collectNearest(xs, ys, radiiSquared, restaurants, point[0], point[1], from, SIZE, nearest);
+        return List.of(nearest.getRestaurants(), nearest.getVisibleCount());
+    }
+}
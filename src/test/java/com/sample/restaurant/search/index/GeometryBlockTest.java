@@ -0,0 +1,57 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeometryBlockTest {
+
+    @Test
+    void testForEachContainingUsesInclusiveRadius() {
+        RestaurantLocation edge = restaurant("edge", 3, 4, 5);
+        RestaurantLocation outside = restaurant("outside", 4, 4, 5);
+        GeometryBlock block = GeometryBlock.of(List.of(edge, outside));
+
+        assertEquals(List.of(edge), visible(block, 0, 0));
+    }
+
+    @Test
+    void testForEachContainingDoesNotOverflowOnLargeCoordinates() {
+        RestaurantLocation far = restaurant("far", Integer.MAX_VALUE, Integer.MAX_VALUE, 1);
+        GeometryBlock block = GeometryBlock.of(List.of(far));
+
+        assertTrue(visible(block, 0, 0).isEmpty());
+        assertEquals(List.of(far), visible(block, Integer.MAX_VALUE, Integer.MAX_VALUE - 1));
+    }
+
+    @Test
+    void testWithAndWithoutCopyTheBlock() {
+        RestaurantLocation a = restaurant("a", 1, 1, 2);
+        RestaurantLocation b = restaurant("b", 2, 2, 2);
+        GeometryBlock original = GeometryBlock.of(List.of(a));
+
+        GeometryBlock added = original.with(b);
+        GeometryBlock removed = added.without(a);
+
+        assertEquals(List.of(a), visible(original, 1, 1));
+        assertEquals(List.of(a, b), visible(added, 1, 1));
+        assertEquals(List.of(b), visible(removed, 1, 1));
+        assertSame(removed, removed.without(a));
+        assertSame(GeometryBlock.EMPTY, removed.without(b));
+    }
+
+    private static List<RestaurantLocation> visible(GeometryBlock block, int x, int y) {
+        List<RestaurantLocation> visible = new ArrayList<>();
+        block.forEachContaining(x, y, visible::add);
+        return visible;
+    }
+
+    private static RestaurantLocation restaurant(String id, int x, int y, int radius) {
+        return new RestaurantLocation(id, id, new Coordinates(x, y), radius);
+    }
+}
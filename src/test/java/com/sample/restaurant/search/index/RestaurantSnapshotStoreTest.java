@@ -0,0 +1,62 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestaurantSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTrip() {
+        RestaurantSnapshotStore store = new RestaurantSnapshotStore(directory.resolve("nested/restaurants.snapshot"));
+        Instant takenAt = Instant.ofEpochMilli(1_700_000_000_123L);
+
+        store.write(List.of(
+                new RestaurantLocation("a", "Café Ünïcode", new Coordinates(-3, Integer.MAX_VALUE), 7),
+                new RestaurantLocation("b", null, new Coordinates(1, 2), 0),
+                new RestaurantLocation("c", "no coordinates", null, 1)), takenAt);
+        RestaurantSnapshotStore.Snapshot snapshot = store.read().orElseThrow();
+
+        assertEquals(takenAt, snapshot.takenAt());
+        assertEquals(2, snapshot.restaurants().size());
+        RestaurantLocation a = snapshot.restaurants().get(0);
+        assertEquals("a", a.getId());
+        assertEquals("Café Ünïcode", a.getName());
+        assertEquals(-3, a.getCoordinates().getX());
+        assertEquals(Integer.MAX_VALUE, a.getCoordinates().getY());
+        assertEquals(7, a.getRadius());
+        assertNull(snapshot.restaurants().get(1).getName());
+    }
+
+    @Test
+    void testMissingSnapshotIsEmpty() {
+        assertTrue(new RestaurantSnapshotStore(directory.resolve("absent.snapshot")).read().isEmpty());
+    }
+
+    @Test
+    void testCorruptSnapshotIsIgnored() throws IOException {
+        Path path = directory.resolve("restaurants.snapshot");
+        RestaurantSnapshotStore store = new RestaurantSnapshotStore(path);
+        store.write(List.of(new RestaurantLocation("a", "A", new Coordinates(1, 1), 1)), Instant.now());
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(path, bytes);
+
+        assertTrue(store.read().isEmpty());
+
+        Files.write(path, new byte[]{1, 2, 3});
+        assertTrue(store.read().isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialGridIndexTest {
+
+    private SpatialGridIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpatialGridIndex(4, 16, BlockScanner.sequential());
+    }
+
+    @Test
+    void testQueryReturnsOnlyContainingDiscs() {
+        index.rebuild(List.of(
+                restaurant("a", 2, 2, 2),
+                restaurant("b", 10, 10, 1),
+                restaurant("c", 5, 5, 5)));
+
+        List<String> ids = ids(index.query(3, 3));
+
+        assertTrue(index.isLoaded());
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of("a", "c")));
+    }
+
+    @Test
+    void testQueryIncludesDiscBoundary() {
+        index.rebuild(List.of(restaurant("a", 0, 4, 5)));
+
+        assertEquals(List.of("a"), ids(index.query(3, 0)));
+        assertTrue(index.query(4, 0).isEmpty());
+    }
+
+    @Test
+    void testUpsertMovesRestaurant() {
+        index.rebuild(List.of(restaurant("a", 2, 2, 1)));
+
+        index.upsert(restaurant("a", 50, 50, 1));
+
+        assertTrue(index.query(2, 2).isEmpty());
+        assertEquals(List.of("a"), ids(index.query(50, 51)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testOversizedDiscsAreAlwaysChecked() {
+        index.rebuild(List.of(restaurant("wide", 100, 100, 100)));
+
+        assertEquals(List.of("wide"), ids(index.query(30, 100)));
+        assertTrue(index.query(0, 0).isEmpty());
+    }
+
+    @Test
+    void testRemove() {
+        index.rebuild(List.of(restaurant("a", 2, 2, 1)));
+
+        index.remove("a");
+
+        assertTrue(index.query(2, 2).isEmpty());
+        assertTrue(index.get("a").isEmpty());
+    }
+
+    @Test
+    void testWritesDuringRebuildAreReplayedOnNewContent() {
+        index.rebuild(List.of(restaurant("a", 2, 2, 1), restaurant("b", 40, 40, 1)));
+
+        index.rebuild(() -> {
+            // Applied while the catalogue is being read, which returns the state from before them
+            index.upsert(restaurant("a", 50, 50, 1));
+            index.upsert(restaurant("c", 3, 3, 1));
+            index.remove("b");
+            return List.of(restaurant("a", 2, 2, 1), restaurant("b", 40, 40, 1));
+        });
+
+        assertTrue(index.query(2, 2).isEmpty());
+        assertEquals("a", index.query(50, 50).get(0).getId());
+        assertEquals("c", index.query(3, 3).get(0).getId());
+        assertTrue(index.get("b").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testNearestKeepsClosestAndCountsVisible() {
+        index.rebuild(List.of(
+                restaurant("far", 6, 6, 10),
+                restaurant("near", 3, 2, 10),
+                restaurant("tie", 2, 3, 10),
+                restaurant("wide", 100, 100, 100)));
+
+        NearestRestaurants nearest = index.nearest(2, 2, 2);
+
+        assertEquals(List.of("near", "tie"), ids(nearest.getRestaurants()));
+        assertEquals(3, nearest.getVisibleCount());
+    }
+
+    private static RestaurantLocation restaurant(String id, int x, int y, int radius) {
+        return new RestaurantLocation(id, id, new Coordinates(x, y), radius);
+    }
+
+    private static List<String> ids(List<RestaurantLocation> restaurants) {
+        return restaurants.stream().map(RestaurantLocation::getId).toList();
+    }
+}
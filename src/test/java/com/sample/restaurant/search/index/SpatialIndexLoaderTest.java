@@ -0,0 +1,114 @@
+package com.sample.restaurant.search.index;
+
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SpatialIndexLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    private RestaurantRepository repository;
+    private SpatialGridIndex index;
+    private RestaurantSnapshotStore store;
+    private SpatialIndexLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RestaurantRepository.class);
+        index = new SpatialGridIndex(4, 16, BlockScanner.sequential());
+        store = new RestaurantSnapshotStore(directory.resolve("restaurants.snapshot"));
+        loader = new SpatialIndexLoader(repository, index, store, true, true, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testFullLoadSavesSnapshot() {
+        when(repository.findAllLocations()).thenReturn(List.of(location("a", 1, 1)));
+
+        loader.run(null);
+
+        assertTrue(index.isLoaded());
+        assertEquals(1, store.read().orElseThrow().restaurants().size());
+    }
+
+    @Test
+    void testFullLoadKeepsWritesMadeWhileReading() {
+        when(repository.findAllLocations()).thenAnswer(invocation -> {
+            index.upsert(location("b", 2, 2));
+            return List.of(location("a", 1, 1));
+        });
+
+        loader.run(null);
+
+        assertTrue(index.get("a").isPresent());
+        assertTrue(index.get("b").isPresent());
+    }
+
+    @Test
+    void testRestoresSnapshotAndCatchesUp() {
+        Instant takenAt = Instant.parse("2026-01-01T10:00:00Z");
+        store.write(List.of(location("a", 1, 1), location("b", 2, 2)), takenAt);
+        when(repository.findLocationsUpdatedSince(takenAt.minus(Duration.ofMinutes(1))))
+                .thenReturn(List.of(location("b", 30, 30), location("c", 3, 3)));
+
+        loader.run(null);
+
+        assertEquals(3, index.size());
+        assertEquals(30, index.get("b").orElseThrow().getCoordinates().getX());
+        verify(repository, never()).findAllLocations();
+    }
+
+    @Test
+    void testFailedCatchUpKeepsSnapshotUntilRetrySucceeds() {
+        Instant takenAt = Instant.parse("2026-01-01T10:00:00Z");
+        Instant since = takenAt.minus(Duration.ofMinutes(1));
+        store.write(List.of(location("a", 1, 1)), takenAt);
+        when(repository.findLocationsUpdatedSince(since))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenThrow(new DataAccessResourceFailureException("still down"))
+                .thenReturn(List.of(location("b", 2, 2)));
+
+        loader.run(null);
+        loader.saveSnapshot();
+
+        assertTrue(index.isLoaded());
+        assertEquals(takenAt, store.read().orElseThrow().takenAt());
+
+        loader.saveSnapshot();
+
+        RestaurantSnapshotStore.Snapshot saved = store.read().orElseThrow();
+        assertTrue(saved.takenAt().isAfter(takenAt));
+        assertEquals(2, saved.restaurants().size());
+        verify(repository, times(3)).findLocationsUpdatedSince(since);
+    }
+
+    @Test
+    void testSnapshotDisabledReadsRepository() {
+        store.write(List.of(location("a", 1, 1)), Instant.now());
+        loader = new SpatialIndexLoader(repository, index, store, true, false, Duration.ofMinutes(1));
+        when(repository.findAllLocations()).thenReturn(List.of());
+
+        loader.run(null);
+
+        verify(repository).findAllLocations();
+        verify(repository, never()).findLocationsUpdatedSince(any());
+    }
+
+    private static RestaurantLocation location(String id, int x, int y) {
+        return new RestaurantLocation(id, id, new Coordinates(x, y), 1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.sample.restaurant.search.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sample.restaurant.search.logging.LogMarkers.SAMPLED;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setMaxLevel("INFO");
+        filter.setRate(3);
+        filter.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+    }
+
+    @Test
+    void testKeepsOneInRateOfRoutineLines() {
+        Logger logger = context.getLogger("com.sample.restaurant.search.service.impl.RestaurantServiceImpl");
+
+        List<FilterReply> replies = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            replies.add(filter.decide(SAMPLED, logger, Level.INFO, "Searching near {}", null, null));
+        }
+
+        assertEquals(List.of(FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY,
+                FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY), replies);
+    }
+
+    @Test
+    void testKeepsWarningsUnmarkedLinesAndLevelChecks() {
+        Logger service = context.getLogger("com.sample.restaurant.search.service.impl.RestaurantServiceImpl");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(SAMPLED, service, Level.WARN, "Slow search", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, service, Level.INFO, "Fetching", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(SAMPLED, service, Level.DEBUG, null, null, null));
+        }
+    }
+
+    @Test
+    void testSamplesLinesCarryingTheMarkerInAnyLogger() {
+        Logger index = context.getLogger("com.sample.restaurant.search.index.SpatialGridIndex");
+        Marker other = MarkerFactory.getMarker("OTHER");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(SAMPLED, index, Level.INFO, "Query", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(SAMPLED, index, Level.INFO, "Query", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(other, index, Level.INFO, "Query", null, null));
+    }
+
+    @Test
+    void testDisabledLinesDoNotConsumeTheSample() {
+        Logger logger = context.getLogger("com.sample.restaurant.search.service.impl.RestaurantServiceImpl");
+        logger.setLevel(Level.INFO);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(SAMPLED, logger, Level.DEBUG, "Searching", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(SAMPLED, logger, Level.INFO, "Searching", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(SAMPLED, logger, Level.INFO, "Searching", null, null));
+    }
+}
@@ -0,0 +1,34 @@
+package com.sample.restaurant.search.mapper;
+
+import com.sample.restaurant.search.model.Coordinates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinatesCodecTest {
+
+    @Test
+    void testParse() {
+        Coordinates coordinates = CoordinatesCodec.parse("x=12,y=0");
+
+        assertEquals(12, coordinates.getX());
+        assertEquals(0, coordinates.getY());
+        assertEquals(Integer.MAX_VALUE, CoordinatesCodec.parse("x=2147483647,y=1").getX());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "invalid", "x=,y=1", "x=1,y=", "x=1;y=2", "x=-1,y=2", "x=1,y=2 ", " x=1,y=2",
+            "y=1,x=2", "x=1,y=2,z=3", "x=2147483648,y=1", "x=1,y=99999999999"})
+    void testParseRejectsAnythingElse(String text) {
+        assertThrows(IllegalArgumentException.class, () -> CoordinatesCodec.parse(text));
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("x=3,y=-2", CoordinatesCodec.format(3, -2));
+        assertEquals("x=5,y=10", CoordinatesCodec.format(new Coordinates(5, 10)));
+        assertEquals("x=0,y=0", CoordinatesCodec.format(null));
+    }
+}
@@ -2,8 +2,10 @@ package com.sample.restaurant.search.mapper;
 
 import com.sample.restaurant.search.dto.LocationDto;
 import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
+import com.sample.restaurant.search.dto.SearchResponseDto;
 import com.sample.restaurant.search.model.Coordinates;
 import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,11 +65,11 @@ class ResponseMapperTest {
 
     @Test
     void testToLocationsSortedByDistance() {
-        Restaurant r1 = new Restaurant();
+        RestaurantLocation r1 = new RestaurantLocation();
         r1.setId(UUID.randomUUID().toString());
         r1.setCoordinates(new Coordinates(3, 4)); // Distance 5
 
-        Restaurant r2 = new Restaurant();
+        RestaurantLocation r2 = new RestaurantLocation();
         r2.setId(UUID.randomUUID().toString());
         r2.setCoordinates(new Coordinates(0, 1)); // Distance 1
 
@@ -76,6 +79,45 @@ class ResponseMapperTest {
         assertTrue(locations.get(0).getDistance() < locations.get(1).getDistance());
     }
 
+    @Test
+    void testToNearestLocationsKeepsNearestInOrder() {
+        List<RestaurantLocation> restaurants = List.of(
+                restaurantAt(5, 0), restaurantAt(1, 0), restaurantAt(4, 0), restaurantAt(2, 0), restaurantAt(3, 0));
+
+        List<LocationDto> nearest = responseMapper.toNearestLocations(restaurants, 0, 0, 3);
+
+        assertEquals(List.of(1.0, 2.0, 3.0), nearest.stream().map(LocationDto::getDistance).toList());
+    }
+
+    @Test
+    void testToNearestLocationsFromStream() {
+        Stream<RestaurantLocation> restaurants = Stream.of(
+                restaurantAt(5, 0), restaurantAt(1, 0), restaurantAt(4, 0), restaurantAt(2, 0), restaurantAt(3, 0));
+
+        List<LocationDto> nearest = responseMapper.toNearestLocations(restaurants, 0, 0, 2);
+
+        assertEquals(List.of(1.0, 2.0), nearest.stream().map(LocationDto::getDistance).toList());
+    }
+
+    @Test
+    void testToSearchResponsePage() {
+        List<RestaurantLocation> restaurants = List.of(
+                restaurantAt(5, 0), restaurantAt(1, 0), restaurantAt(4, 0), restaurantAt(2, 0), restaurantAt(3, 0));
+
+        SearchResponseDto firstPage = responseMapper.toSearchResponse(restaurants, 0, 0, 2, 0);
+        SearchResponseDto lastPage = responseMapper.toSearchResponse(restaurants, 0, 0, 2, 4);
+
+        assertEquals("x=0,y=0", firstPage.getUserLocation());
+        assertEquals(List.of(1.0, 2.0), firstPage.getLocations().stream().map(LocationDto::getDistance).toList());
+        assertEquals(2, firstPage.getNextOffset());
+        assertEquals(List.of(5.0), lastPage.getLocations().stream().map(LocationDto::getDistance).toList());
+        assertNull(lastPage.getNextOffset());
+    }
+
+    private static RestaurantLocation restaurantAt(int x, int y) {
+        return new RestaurantLocation(UUID.randomUUID().toString(), null, new Coordinates(x, y), 0);
+    }
+
 
 
 }
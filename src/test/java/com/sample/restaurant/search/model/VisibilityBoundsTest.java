@@ -0,0 +1,28 @@
+package com.sample.restaurant.search.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisibilityBoundsTest {
+
+    @Test
+    void testBoundsOfDisc() {
+        VisibilityBounds bounds = VisibilityBounds.of(new Coordinates(10, -20), 5);
+
+        assertEquals(5, bounds.getMinX());
+        assertEquals(15, bounds.getMaxX());
+        assertEquals(-25, bounds.getMinY());
+        assertEquals(-15, bounds.getMaxY());
+    }
+
+    @Test
+    void testBoundsAreClampedAtTheEndsOfTheIntRange() {
+        VisibilityBounds bounds = VisibilityBounds.of(new Coordinates(Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1), 5);
+
+        assertEquals(Integer.MAX_VALUE - 6, bounds.getMinX());
+        assertEquals(Integer.MAX_VALUE, bounds.getMaxX());
+        assertEquals(Integer.MIN_VALUE, bounds.getMinY());
+        assertEquals(Integer.MIN_VALUE + 6, bounds.getMaxY());
+    }
+}
@@ -0,0 +1,107 @@
+package com.sample.restaurant.search.repository;
+
+import com.sample.restaurant.search.exception.RepositoryBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RepositoryBulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RepositoryBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new RepositoryBulkhead(meterRegistry, 1, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void shouldRejectCallsBeyondLimitAfterMaxWait() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> blocking = guarded(() -> {
+            entered.countDown();
+            await(release);
+            return "done";
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> holder = executor.submit(blocking::get);
+            entered.await();
+
+            assertThat(bulkhead.activeCalls()).isEqualTo(1);
+            assertThatThrownBy(guarded(() -> "second")::get).isInstanceOf(RepositoryBusyException.class);
+            assertThat(meterRegistry.counter("restaurant.mongo.bulkhead.rejected").count()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(holder.get()).isEqualTo("done");
+        }
+        assertThat(bulkhead.activeCalls()).isZero();
+        assertThat(guarded(() -> "third").get()).isEqualTo("third");
+    }
+
+    @Test
+    void shouldHoldStreamPermitUntilReturnedStreamIsClosed() {
+        Cursor cursor = guardedCursor(() -> Stream.of(1, 2, 3));
+
+        Stream<Integer> stream = cursor.open();
+        assertThat(bulkhead.activeStreams()).isEqualTo(1);
+        assertThat(bulkhead.activeCalls()).isZero();
+
+        stream.close();
+        assertThat(bulkhead.activeStreams()).isZero();
+    }
+
+    @Test
+    void shouldKeepCallsAvailableWhileStreamIsConsumedSlowly() {
+        Cursor cursor = guardedCursor(() -> Stream.of(1, 2, 3));
+
+        try (Stream<Integer> slow = cursor.open()) {
+            assertThat(guarded(() -> "call").get()).isEqualTo("call");
+            assertThatThrownBy(cursor::open).isInstanceOf(RepositoryBusyException.class);
+            assertThat(slow.toList()).containsExactly(1, 2, 3);
+        }
+        assertThat(bulkhead.activeStreams()).isZero();
+        assertThat(bulkhead.activeCalls()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Supplier<T> guarded(Supplier<T> target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(Supplier.class);
+        proxyFactory.addAdvice(bulkhead);
+        return (Supplier<T>) proxyFactory.getProxy();
+    }
+
+    private Cursor guardedCursor(Cursor target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(Cursor.class);
+        proxyFactory.addAdvice(bulkhead);
+        return (Cursor) proxyFactory.getProxy();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    interface Cursor {
+        Stream<Integer> open();
+    }
+}
@@ -0,0 +1,71 @@
+package com.sample.restaurant.search.repository;
+
+import com.mongodb.ReadPreference;
+import com.sample.restaurant.search.config.MongoClientProperties;
+import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RestaurantRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private RestaurantRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RestaurantRepositoryCustomImpl(mongoTemplate, new MongoClientProperties());
+    }
+
+    @Test
+    void shouldQueryVisibilityBoundsIntersectingRectangle() {
+        RestaurantLocation restaurant = new RestaurantLocation();
+        when(mongoTemplate.getCollectionName(Restaurant.class)).thenReturn("restaurants");
+        when(mongoTemplate.find(any(Query.class), eq(RestaurantLocation.class), eq("restaurants"))).thenReturn(List.of(restaurant));
+
+        List<RestaurantLocation> candidates = repository.findIntersecting(3, 5, 7, 9);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(RestaurantLocation.class), eq("restaurants"));
+        Document filter = query.getValue().getQueryObject();
+        assertThat(candidates).containsExactly(restaurant);
+        assertThat(filter.get("bounds.minX", Document.class).get("$lte")).isEqualTo(5);
+        assertThat(filter.get("bounds.maxX", Document.class).get("$gte")).isEqualTo(3);
+        assertThat(filter.get("bounds.minY", Document.class).get("$lte")).isEqualTo(9);
+        assertThat(filter.get("bounds.maxY", Document.class).get("$gte")).isEqualTo(7);
+        assertThat(query.getValue().getReadPreference()).isEqualTo(ReadPreference.primary());
+        assertThat(query.getValue().getFieldsObject().keySet()).containsExactlyInAnyOrder(RestaurantLocation.FIELDS);
+    }
+
+    @Test
+    void shouldQueryLeanLocationsUpdatedSince() {
+        Instant since = Instant.parse("2026-01-01T10:00:00Z");
+        when(mongoTemplate.getCollectionName(Restaurant.class)).thenReturn("restaurants");
+
+        repository.findLocationsUpdatedSince(since);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(RestaurantLocation.class), eq("restaurants"));
+        assertThat(query.getValue().getQueryObject().get("updatedAt", Document.class).get("$gte")).isEqualTo(since);
+        assertThat(query.getValue().getFieldsObject().keySet()).containsExactlyInAnyOrder(RestaurantLocation.FIELDS);
+    }
+}
@@ -0,0 +1,23 @@
+package com.sample.restaurant.search.repository;
+
+import com.sample.restaurant.search.model.Restaurant;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestaurantUpdatedAtCallbackTest {
+
+    @Test
+    void shouldStampWithMillisecondPrecision() {
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        Restaurant restaurant = new RestaurantUpdatedAtCallback().onBeforeConvert(new Restaurant(), "restaurants");
+
+        Instant updatedAt = restaurant.getUpdatedAt();
+        assertThat(updatedAt).isEqualTo(updatedAt.truncatedTo(ChronoUnit.MILLIS));
+        assertThat(updatedAt).isAfterOrEqualTo(before);
+    }
+}
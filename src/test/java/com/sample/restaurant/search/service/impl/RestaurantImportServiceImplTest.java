@@ -0,0 +1,116 @@
+package com.sample.restaurant.search.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sample.restaurant.search.cache.SearchCacheInvalidator;
+import com.sample.restaurant.search.dto.BulkImportResponseDto;
+import com.sample.restaurant.search.exception.InvalidInputException;
+import com.sample.restaurant.search.index.SpatialGridIndex;
+import com.sample.restaurant.search.mapper.RequestMapper;
+import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RestaurantImportServiceImplTest {
+
+    private static final String FIRST_ID = "19e1545c-8b65-4d83-82f9-7fcad4a23114";
+    private static final String SECOND_ID = "19e1545c-8b65-4d83-82f9-7fcad4a23115";
+    private static final String THIRD_ID = "20e1545c-8b65-4d83-82f9-7fcad4a23114";
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    @Mock
+    private SpatialGridIndex spatialIndex;
+    @Mock
+    private SearchCacheInvalidator searchCacheInvalidator;
+    @Mock
+    private CacheManager cacheManager;
+
+    private ValidatorFactory validatorFactory;
+    private RestaurantImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importService = new RestaurantImportServiceImpl(restaurantRepository, Mappers.getMapper(RequestMapper.class),
+                spatialIndex, searchCacheInvalidator, cacheManager, new ObjectMapper(), validatorFactory.getValidator(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void testImportsLocationsDocumentInBatches() {
+        when(restaurantRepository.bulkUpsert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        BulkImportResponseDto result = importService.importRestaurants(json("""
+                {"locations": [%s, %s, %s]}
+                """.formatted(restaurant(FIRST_ID, "x=2,y=2"), restaurant(SECOND_ID, "x=3,y=3"), restaurant(THIRD_ID, "x=5,y=5"))));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals(2, result.getBatches());
+        ArgumentCaptor<List<Restaurant>> batches = ArgumentCaptor.captor();
+        verify(restaurantRepository, times(2)).bulkUpsert(batches.capture());
+        assertEquals(List.of(FIRST_ID, SECOND_ID), batches.getAllValues().get(0).stream().map(Restaurant::getId).toList());
+        assertEquals(5, batches.getAllValues().get(1).get(0).getCoordinates().getX());
+        verify(spatialIndex, times(3)).upsert(any(RestaurantLocation.class));
+        verify(searchCacheInvalidator, times(4)).evictVisibleFromAll(anyList());
+    }
+
+    @Test
+    void testRejectsInvalidRestaurantsAndKeepsGoing() {
+        when(restaurantRepository.bulkUpsert(anyList())).thenReturn(1);
+
+        BulkImportResponseDto result = importService.importRestaurants(json("""
+                [%s, %s]
+                """.formatted(restaurant(FIRST_ID, "somewhere"), restaurant(SECOND_ID, "x=3,y=3"))));
+
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("restaurant 0:"));
+    }
+
+    @Test
+    void testMalformedDocument() {
+        InputStream body = json("{\"locations\": 5}");
+
+        assertThrows(InvalidInputException.class, () -> importService.importRestaurants(body));
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    private static String restaurant(String id, String coordinates) {
+        return """
+                {"name": "Mantra", "type": "Restaurant", "id": "%s", "opening-hours": "10:00AM-10:00PM",
+                 "image": "https://tinyurl.com", "radius": 2, "coordinates": "%s"}
+                """.formatted(id, coordinates);
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
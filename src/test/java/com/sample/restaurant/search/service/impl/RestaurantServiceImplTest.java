@@ -1,23 +1,45 @@
 package com.sample.restaurant.search.service.impl;
 
+import com.sample.restaurant.search.cache.SearchCacheInvalidator;
+import com.sample.restaurant.search.cache.SearchKey;
+import com.sample.restaurant.search.cache.SearchKeyRegistry;
+import com.sample.restaurant.search.cache.TileCandidateCache;
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.config.CacheProperties;
 import com.sample.restaurant.search.dto.LocationDto;
 import com.sample.restaurant.search.dto.RestaurantDetailsResponseDto;
 import com.sample.restaurant.search.dto.SearchResponseDto;
+import com.sample.restaurant.search.exception.RepositoryBusyException;
 import com.sample.restaurant.search.exception.RestaurantNotFoundException;
+import com.sample.restaurant.search.index.GeometryBlock;
+import com.sample.restaurant.search.index.NearestRestaurants;
+import com.sample.restaurant.search.index.SpatialGridIndex;
 import com.sample.restaurant.search.mapper.RequestMapper;
 import com.sample.restaurant.search.mapper.ResponseMapper;
+import com.sample.restaurant.search.metrics.SearchMetrics;
 import com.sample.restaurant.search.model.Coordinates;
 import com.sample.restaurant.search.model.Restaurant;
+import com.sample.restaurant.search.model.RestaurantLocation;
 import com.sample.restaurant.search.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +55,20 @@ class RestaurantServiceImplTest {
     private ResponseMapper responseMapper;
     @Mock
     private RequestMapper requestMapper;
+    @Mock
+    private SpatialGridIndex spatialIndex;
+    @Mock
+    private SearchKeyRegistry searchKeyRegistry;
+    @Mock
+    private SearchCacheInvalidator searchCacheInvalidator;
+    @Mock
+    private TileCandidateCache tileCandidateCache;
+    @Mock
+    private CacheManager cacheManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private SearchMetrics searchMetrics = new SearchMetrics(meterRegistry);
 
     @InjectMocks
     private RestaurantServiceImpl restaurantService;
@@ -74,13 +110,12 @@ class RestaurantServiceImplTest {
     void testRestaurantLocator_found() {
         int x = 10;
         int y = 20;
-        Restaurant restaurant = new Restaurant();
+        RestaurantLocation restaurant = new RestaurantLocation();
         restaurant.setId(UUID.randomUUID().toString());
         restaurant.setName("Test Restaurant");
-        restaurant.setType("Restaurant");
         restaurant.setCoordinates(new Coordinates(x, y));
 
-        when(restaurantRepository.findAll()).thenReturn(List.of(restaurant));
+        when(tileCandidateCache.candidates(x, y)).thenReturn(GeometryBlock.of(List.of(restaurant)));
         when(responseMapper.toSearchResponse(List.of(restaurant), x, y)).thenReturn(new SearchResponseDto("x=10,y=20", List.of(new LocationDto())));
 
         SearchResponseDto response = restaurantService.restaurantLocator(x, y);
@@ -89,8 +124,237 @@ class RestaurantServiceImplTest {
         assertEquals(String.format("x=%d,y=%d", x, y), response.getUserLocation());
         assertEquals(1, response.getLocations().size());
         verify(responseMapper).toSearchResponse(anyList(), eq(x), eq(y));
-        verify(restaurantRepository).findAll();
+        verify(tileCandidateCache).candidates(x, y);
+        verifyNoInteractions(restaurantRepository);
+        verify(searchKeyRegistry).register(new SearchKey(x, y));
+
+    }
+
+    @Test
+    void testRestaurantLocator_usesLoadedIndex() {
+        RestaurantLocation restaurant = new RestaurantLocation();
+        restaurant.setId(UUID.randomUUID().toString());
+        restaurant.setCoordinates(new Coordinates(1, 1));
+        restaurant.setRadius(2);
+
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.query(2, 2)).thenReturn(List.of(restaurant));
+        when(responseMapper.toSearchResponse(List.of(restaurant), 2, 2)).thenReturn(new SearchResponseDto("x=2,y=2", List.of(new LocationDto())));
+
+        SearchResponseDto response = restaurantService.restaurantLocator(2, 2);
+
+        assertEquals(1, response.getLocations().size());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    void testRestaurantLocator_cachesResponseAndRecordsStages() {
+        Cache cache = new CaffeineCacheManager(CacheConfig.SEARCH_CACHE).getCache(CacheConfig.SEARCH_CACHE);
+        RestaurantLocation restaurant = new RestaurantLocation();
+        restaurant.setCoordinates(new Coordinates(1, 1));
+        restaurant.setRadius(2);
+        SearchResponseDto computed = new SearchResponseDto("x=2,y=2", List.of(new LocationDto()));
+
+        when(cacheManager.getCache(CacheConfig.SEARCH_CACHE)).thenReturn(cache);
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.query(2, 2)).thenReturn(List.of(restaurant));
+        when(spatialIndex.candidateCount(2, 2)).thenReturn(3);
+        when(responseMapper.toSearchResponse(List.of(restaurant), 2, 2)).thenReturn(computed);
+
+        assertSame(computed, restaurantService.restaurantLocator(2, 2));
+        assertSame(computed, restaurantService.restaurantLocator(2, 2));
+
+        verify(spatialIndex, times(1)).query(2, 2);
+        assertEquals(2, stageTimer("cache_lookup").count());
+        assertEquals(1, stageTimer("filter").count());
+        assertEquals(1, stageTimer("mapping").count());
+        assertEquals(3, meterRegistry.get("restaurant.search.candidates").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("restaurant.search.results").summary().totalAmount());
+    }
+
+    @Test
+    void testRestaurantLocator_page() {
+        RestaurantLocation restaurant = new RestaurantLocation();
+        restaurant.setId(UUID.randomUUID().toString());
+        restaurant.setCoordinates(new Coordinates(1, 1));
+        restaurant.setRadius(2);
+        SearchResponseDto page = new SearchResponseDto("x=2,y=2", List.of(new LocationDto()));
+        NearestRestaurants nearest = new NearestRestaurants(15);
+
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.nearest(2, 2, 15)).thenReturn(nearest);
+        when(responseMapper.toSearchResponse(nearest, 2, 2, 5)).thenReturn(page);
+
+        assertSame(page, restaurantService.restaurantLocator(2, 2, 10, 5));
+        verify(spatialIndex, never()).query(anyInt(), anyInt());
+        verify(searchKeyRegistry).register(new SearchKey(2, 2, 10, 5));
+    }
+
+    @Test
+    void testRestaurantLocator_cachesPagesApartFromWholeResult() {
+        Cache cache = new CaffeineCacheManager(CacheConfig.SEARCH_CACHE).getCache(CacheConfig.SEARCH_CACHE);
+        SearchResponseDto page = new SearchResponseDto("x=2,y=2", List.of(new LocationDto()));
+        SearchResponseDto whole = new SearchResponseDto("x=2,y=2", List.of(new LocationDto(), new LocationDto()));
+        NearestRestaurants nearest = new NearestRestaurants(1);
+
+        when(cacheManager.getCache(CacheConfig.SEARCH_CACHE)).thenReturn(cache);
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.nearest(2, 2, 1)).thenReturn(nearest);
+        when(responseMapper.toSearchResponse(nearest, 2, 2, 0)).thenReturn(page);
+        when(spatialIndex.query(2, 2)).thenReturn(List.of());
+        when(responseMapper.toSearchResponse(List.of(), 2, 2)).thenReturn(whole);
+
+        assertSame(page, restaurantService.restaurantLocator(2, 2, 1, 0));
+        assertSame(page, restaurantService.restaurantLocator(2, 2, 1, 0));
+        assertSame(whole, restaurantService.restaurantLocator(2, 2));
+
+        verify(spatialIndex, times(1)).nearest(2, 2, 1);
+        assertSame(page, cache.get(new SearchKey(2, 2, 1, 0)).get());
+        assertSame(whole, cache.get(new SearchKey(2, 2)).get());
+    }
+
+    @Test
+    void testStreamRestaurantLocator_readsCursorWhenIndexNotLoaded() {
+        RestaurantLocation visible = new RestaurantLocation();
+        visible.setCoordinates(new Coordinates(1, 1));
+        visible.setRadius(2);
+        RestaurantLocation outOfReach = new RestaurantLocation();
+        outOfReach.setCoordinates(new Coordinates(5, 5));
+        outOfReach.setRadius(3);
+        LocationDto location = new LocationDto();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(restaurantRepository.streamIntersecting(2, 2, 2, 2))
+                .thenReturn(Stream.of(visible, outOfReach).onClose(() -> closed.set(true)));
+        when(responseMapper.toLocation(visible, 2, 2)).thenReturn(location);
+
+        List<LocationDto> streamed = new ArrayList<>();
+        restaurantService.streamRestaurantLocator(2, 2, streamed::add);
+
+        assertEquals(List.of(location), streamed);
+        assertTrue(closed.get());
+        verifyNoInteractions(tileCandidateCache, searchKeyRegistry);
+    }
+
+    @Test
+    void testStreamRestaurantLocator_writesEachRecordWhileReadingCursor() {
+        RestaurantLocation first = new RestaurantLocation();
+        first.setCoordinates(new Coordinates(1, 1));
+        first.setRadius(2);
+        RestaurantLocation second = new RestaurantLocation();
+        second.setCoordinates(new Coordinates(3, 3));
+        second.setRadius(2);
+        AtomicInteger read = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(restaurantRepository.streamIntersecting(2, 2, 2, 2))
+                .thenReturn(Stream.of(first, second).peek(r -> read.incrementAndGet()).onClose(() -> closed.set(true)));
+        when(responseMapper.toLocation(any(RestaurantLocation.class), eq(2), eq(2))).thenAnswer(i -> new LocationDto());
+
+        List<String> written = new ArrayList<>();
+        restaurantService.streamRestaurantLocator(2, 2,
+                location -> written.add("read=" + read.get() + ",closed=" + closed.get()));
+
+        // Nothing is collected ahead of the sink; the cursor is open while records are written and closed after
+        assertEquals(List.of("read=1,closed=false", "read=2,closed=false"), written);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testStreamRestaurantLocator_orderedSkipsOffset() {
+        RestaurantLocation nearer = new RestaurantLocation();
+        RestaurantLocation farther = new RestaurantLocation();
+        NearestRestaurants nearest = mock(NearestRestaurants.class);
+        LocationDto second = new LocationDto();
+
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.nearest(2, 2, 2)).thenReturn(nearest);
+        when(nearest.getRestaurants()).thenReturn(List.of(nearer, farther));
+        when(responseMapper.toLocation(farther, 2, 2)).thenReturn(second);
+
+        List<LocationDto> streamed = new ArrayList<>();
+        restaurantService.streamRestaurantLocator(2, 2, 1, 1, streamed::add);
+
+        assertEquals(List.of(second), streamed);
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    void testRestaurantLocatorBatch_usesCacheAndComputesEachMissOnce() {
+        Cache cache = new CaffeineCacheManager(CacheConfig.SEARCH_CACHE).getCache(CacheConfig.SEARCH_CACHE);
+        SearchResponseDto cached = new SearchResponseDto("x=1,y=1", List.of());
+        cache.put(new SearchKey(1, 1), cached);
+        RestaurantLocation restaurant = new RestaurantLocation();
+        restaurant.setCoordinates(new Coordinates(2, 2));
+        restaurant.setRadius(1);
+        SearchResponseDto computed = new SearchResponseDto("x=2,y=2", List.of(new LocationDto()));
+
+        when(cacheManager.getCache(CacheConfig.SEARCH_CACHE)).thenReturn(cache);
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.query(2, 2)).thenReturn(List.of(restaurant));
+        when(responseMapper.toSearchResponse(List.of(restaurant), 2, 2)).thenReturn(computed);
+
+        List<SearchResponseDto> responses = restaurantService.restaurantLocatorBatch(
+                List.of(new Coordinates(1, 1), new Coordinates(2, 2), new Coordinates(2, 2)));
+
+        assertEquals(List.of(cached, computed, computed), responses);
+        assertSame(computed, cache.get(new SearchKey(2, 2)).get());
+        verify(spatialIndex, times(1)).query(2, 2);
+        verify(searchKeyRegistry).register(new SearchKey(2, 2));
+    }
+
+    @Test
+    void testRestaurantLocatorBatch_doesNotCacheResultEvictedDuringLoad() throws InterruptedException {
+        Cache cache = new CaffeineCacheManager(CacheConfig.SEARCH_CACHE).getCache(CacheConfig.SEARCH_CACHE);
+        SearchResponseDto stale = new SearchResponseDto("x=2,y=2", List.of());
+        Thread[] writer = new Thread[1];
+
+        when(cacheManager.getCache(CacheConfig.SEARCH_CACHE)).thenReturn(cache);
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.query(2, 2)).thenAnswer(invocation -> {
+            // A write evicts the location while its search is being computed; the eviction waits for the load
+            writer[0] = Thread.ofPlatform().start(() -> cache.evict(new SearchKey(2, 2)));
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            while (writer[0].getState() != Thread.State.BLOCKED && writer[0].isAlive() && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            return List.of();
+        });
+        when(responseMapper.toSearchResponse(List.of(), 2, 2)).thenReturn(stale);
+
+        List<SearchResponseDto> responses = restaurantService.restaurantLocatorBatch(List.of(new Coordinates(2, 2)));
+        writer[0].join();
 
+        assertEquals(List.of(stale), responses);
+        assertNull(cache.get(new SearchKey(2, 2)));
+    }
+
+    @Test
+    void testRestaurantLocator_loadsOnCallingThreadAndRethrowsFailure() {
+        Cache cache = new CacheConfig().cacheManager(new CacheProperties(), new SearchKeyRegistry(16))
+                .getCache(CacheConfig.SEARCH_CACHE);
+        Thread caller = Thread.currentThread();
+
+        when(cacheManager.getCache(CacheConfig.SEARCH_CACHE)).thenReturn(cache);
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.query(2, 2)).thenAnswer(invocation -> {
+            assertSame(caller, Thread.currentThread());
+            throw new RepositoryBusyException("busy");
+        });
+
+        assertThrows(RepositoryBusyException.class, () -> restaurantService.restaurantLocator(2, 2));
+        assertNull(cache.get(new SearchKey(2, 2)));
+    }
+
+    @Test
+    void testRestaurantLocator_forgetsKeyWhenSearchFails() {
+        when(spatialIndex.isLoaded()).thenReturn(false);
+        when(tileCandidateCache.candidates(2, 2)).thenThrow(new RepositoryBusyException("busy"));
+
+        assertThrows(RepositoryBusyException.class, () -> restaurantService.restaurantLocator(2, 2));
+
+        verify(searchKeyRegistry).register(new SearchKey(2, 2));
+        verify(searchKeyRegistry).forget(new SearchKey(2, 2));
     }
 
      @Test
@@ -118,6 +382,32 @@ class RestaurantServiceImplTest {
         assertEquals(dto.getId(), result.getId());
         verify(requestMapper).toEntity(dto);
         verify(restaurantRepository).save(restaurant);
+        verify(spatialIndex).upsert(argThat(location -> location.getId().equals(id.toString())));
+        verify(searchCacheInvalidator).evictVisibleFrom(argThat(location -> location != null && location.getCoordinates().getY() == 5));
+    }
+
+    @Test
+    void testAddOrUpdateRestaurant_evictsPreviousPosition() {
+        var id = UUID.randomUUID();
+        RestaurantDetailsResponseDto dto = new RestaurantDetailsResponseDto();
+        dto.setCoordinates("x=9,y=9");
+        RestaurantLocation previous = new RestaurantLocation(id.toString(), null, new Coordinates(1, 1), 2);
+        Restaurant updated = Restaurant.builder().id(id.toString()).coordinates(new Coordinates(9, 9)).radius(2).build();
+
+        when(spatialIndex.isLoaded()).thenReturn(true);
+        when(spatialIndex.get(id.toString())).thenReturn(Optional.of(previous));
+        when(requestMapper.toEntity(dto)).thenReturn(updated);
+        when(restaurantRepository.save(updated)).thenReturn(updated);
+
+        restaurantService.addOrUpdateRestaurant(id.toString(), dto);
+
+        verify(searchCacheInvalidator).evictVisibleFrom(previous);
+        verify(searchCacheInvalidator).evictVisibleFrom(argThat(location -> location != null && location.getCoordinates().getX() == 9));
+        verify(restaurantRepository, never()).findLocationsById(any());
+    }
+
+    private Timer stageTimer(String stage) {
+        return meterRegistry.get("restaurant.search.stage").tag("stage", stage).timer();
     }
 
     private Coordinates stringToCoordinates(String coordinates) {
@@ -0,0 +1,187 @@
+package com.sample.restaurant.search.sync;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.sample.restaurant.search.cache.SearchCacheInvalidator;
+import com.sample.restaurant.search.config.CacheConfig;
+import com.sample.restaurant.search.exception.RepositoryBusyException;
+import com.sample.restaurant.search.index.BlockScanner;
+import com.sample.restaurant.search.index.SpatialGridIndex;
+import com.sample.restaurant.search.model.Coordinates;
+import com.sample.restaurant.search.model.RestaurantLocation;
+import com.sample.restaurant.search.repository.RestaurantRepository;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class RestaurantChangeStreamSyncTest {
+
+    private SpatialGridIndex index;
+    private SearchCacheInvalidator invalidator;
+    private CaffeineCacheManager cacheManager;
+    private RestaurantChangeStreamSync sync;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpatialGridIndex(4, 16, BlockScanner.sequential());
+        invalidator = mock(SearchCacheInvalidator.class);
+        cacheManager = new CaffeineCacheManager(CacheConfig.SEARCH_CACHE, CacheConfig.TILE_CACHE, CacheConfig.RESTAURANTS_CACHE);
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        sync = new RestaurantChangeStreamSync(mongoTemplate, mock(RestaurantRepository.class), index, invalidator,
+                cacheManager, true, true, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void testUpdateMovesRestaurantAndEvictsOldAndNewPosition() {
+        RestaurantLocation previous = location("a", 2, 2, 1);
+        index.rebuild(List.of(previous));
+        cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE).put("a", "details");
+
+        boolean open = sync.apply(event(OperationType.UPDATE, "a",
+                new Document("_id", "a").append("name", "A").append("radius", 1)
+                        .append("coordinates", new Document("x", 50).append("y", 50))));
+
+        assertTrue(open);
+        assertTrue(index.query(2, 2).isEmpty());
+        assertEquals("A", index.query(50, 50).get(0).getName());
+        verify(invalidator).evictVisibleFrom(previous);
+        verify(invalidator).evictVisibleFrom(argThat(r -> r != null && r.getCoordinates().getX() == 50));
+        assertNull(cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE).get("a"));
+    }
+
+    @Test
+    void testDeleteRemovesRestaurant() {
+        RestaurantLocation previous = location("a", 2, 2, 1);
+        index.rebuild(List.of(previous));
+
+        sync.apply(event(OperationType.DELETE, "a", null));
+
+        assertTrue(index.get("a").isEmpty());
+        verify(invalidator).evictVisibleFrom(previous);
+    }
+
+    @Test
+    void testUnknownPreviousPositionClearsSearchCachesWithoutIndex() {
+        sync.apply(OperationType.UPDATE, "a", location("a", 5, 5, 1), null);
+
+        verify(invalidator).evictAll();
+    }
+
+    @Test
+    void testPreImageIsUsedWithoutIndex() {
+        cacheManager.getCache(CacheConfig.SEARCH_CACHE).put("key", "result");
+        RestaurantLocation previous = location("a", 2, 2, 1);
+
+        sync.apply(OperationType.UPDATE, "a", location("a", 5, 5, 1), previous);
+
+        assertNotNull(cacheManager.getCache(CacheConfig.SEARCH_CACHE).get("key"));
+        verify(invalidator).evictVisibleFrom(previous);
+    }
+
+    @Test
+    void testInvalidateRequestsReopen() {
+        assertFalse(sync.apply(event(OperationType.INVALIDATE, null, null)));
+    }
+
+    @Test
+    void testWorkerRetriesResyncThatFails() {
+        RestaurantRepository repository = mock(RestaurantRepository.class);
+        when(repository.findAllLocations())
+                .thenThrow(new RepositoryBusyException("busy"))
+                .thenReturn(List.of(location("a", 2, 2, 1)));
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = invalidatedCursor();
+        RestaurantChangeStreamSync worker = worker(repository, cursor);
+
+        worker.start();
+        try {
+            verify(repository, timeout(5000).times(2)).findAllLocations();
+            verify(cursor, timeout(5000).atLeast(4)).tryNext();
+            assertTrue(worker.isRunning());
+            assertTrue(index.get("a").isPresent());
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void testResyncKeepsChangesAppliedWhileReading() {
+        RestaurantRepository repository = mock(RestaurantRepository.class);
+        when(repository.findAllLocations()).thenAnswer(invocation -> {
+            // Written by this instance while the catalogue is read, and missing from what the read returns
+            index.upsert(location("b", 30, 30, 1));
+            return List.of(location("a", 2, 2, 1));
+        });
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = invalidatedCursor();
+        RestaurantChangeStreamSync worker = worker(repository, cursor);
+
+        worker.start();
+        try {
+            verify(repository, timeout(5000)).findAllLocations();
+            verify(cursor, timeout(5000).atLeast(3)).tryNext();
+            assertTrue(index.get("a").isPresent());
+            assertTrue(index.get("b").isPresent());
+        } finally {
+            worker.stop();
+        }
+    }
+
+    /**
+     * A cursor whose first event invalidates the stream, so the worker reopens it and resynchronizes.
+     */
+    @SuppressWarnings("unchecked")
+    private static MongoChangeStreamCursor<ChangeStreamDocument<Document>> invalidatedCursor() {
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        ChangeStreamDocument<Document> invalidate = event(OperationType.INVALIDATE, null, null);
+        when(cursor.tryNext()).thenReturn(invalidate).thenReturn(null);
+        return cursor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RestaurantChangeStreamSync worker(RestaurantRepository repository,
+                                              MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        ChangeStreamIterable<Document> stream = mock(ChangeStreamIterable.class, RETURNS_SELF);
+        when(mongoTemplate.getCollectionName(any())).thenReturn("restaurants");
+        when(mongoTemplate.getCollection("restaurants")).thenReturn(collection);
+        when(collection.watch(anyList())).thenReturn(stream);
+        when(stream.cursor()).thenReturn(cursor);
+        return new RestaurantChangeStreamSync(mongoTemplate, repository, index, invalidator,
+                cacheManager, true, true, Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> event(OperationType type, String id, Document fullDocument) {
+        ChangeStreamDocument<Document> event = mock(ChangeStreamDocument.class);
+        when(event.getOperationType()).thenReturn(type);
+        when(event.getDocumentKey()).thenReturn(id != null ? new BsonDocument("_id", new BsonString(id)) : null);
+        when(event.getFullDocument()).thenReturn(fullDocument);
+        return event;
+    }
+
+    private static RestaurantLocation location(String id, int x, int y, int radius) {
+        return new RestaurantLocation(id, id, new Coordinates(x, y), radius);
+    }
+}